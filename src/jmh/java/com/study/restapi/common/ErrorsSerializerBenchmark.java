@@ -0,0 +1,93 @@
+package com.study.restapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.study.restapi.events.EventDto;
+import com.study.restapi.events.EventValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 이전 ErrorsSerializer와 새 ErrorsSerializer를 비교한다.
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="ErrorsSerializerBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorsSerializerBenchmark {
+
+    private ObjectMapper legacyMapper;
+    private ObjectMapper objectMapper;
+    // EventValidator가 만드는 오류 (wrongPrices + endEventDateTime)
+    private Errors validatorErrors;
+    // 빈 요청을 @Valid로 검증했을 때처럼 rejectedValue가 없는 필드 오류
+    private Errors emptyRequestErrors;
+
+    @Setup
+    public void setUp() {
+        legacyMapper = new ObjectMapper()
+                .registerModule(new SimpleModule().addSerializer(Errors.class, new LegacyErrorsSerializer()));
+        objectMapper = new ObjectMapper()
+                .registerModule(new SimpleModule().addSerializer(Errors.class, new ErrorsSerializer()));
+
+        EventDto wrongEventDto = EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 11, 11, 11))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 12, 11, 11))
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .endEventDateTime(LocalDateTime.of(2018, 10, 1, 11, 11))
+                .basePrice(10000)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+        validatorErrors = new BeanPropertyBindingResult(wrongEventDto, "eventDto");
+        new EventValidator().validate(wrongEventDto, validatorErrors);
+
+        emptyRequestErrors = new BeanPropertyBindingResult(new EventDto(), "eventDto");
+        emptyRequestErrors.rejectValue("name", "NotEmpty", "must not be empty");
+        emptyRequestErrors.rejectValue("description", "NotEmpty", "must not be empty");
+        emptyRequestErrors.rejectValue("beginEnrollmentDateTime", "NotNull", "must not be null");
+        emptyRequestErrors.rejectValue("closeEnrollmentDateTime", "NotNull", "must not be null");
+        emptyRequestErrors.rejectValue("beginEventDateTime", "NotNull", "must not be null");
+        emptyRequestErrors.rejectValue("endEventDateTime", "NotNull", "must not be null");
+    }
+
+    @Benchmark
+    public byte[] legacyValidatorErrors() throws Exception {
+        return legacyMapper.writeValueAsBytes(validatorErrors);
+    }
+
+    @Benchmark
+    public byte[] validatorErrors() throws Exception {
+        return objectMapper.writeValueAsBytes(validatorErrors);
+    }
+
+    @Benchmark
+    public byte[] legacyEmptyRequestErrors() throws Exception {
+        return legacyMapper.writeValueAsBytes(emptyRequestErrors);
+    }
+
+    @Benchmark
+    public byte[] emptyRequestErrors() throws Exception {
+        return objectMapper.writeValueAsBytes(emptyRequestErrors);
+    }
+
+}
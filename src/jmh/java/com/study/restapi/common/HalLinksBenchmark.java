@@ -0,0 +1,80 @@
+package com.study.restapi.common;
+
+import com.study.restapi.events.EventController;
+import com.study.restapi.index.IndexController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/*
+ * 응답 하나에 들어가는 링크(self, update-event, query-events, profile, index)를 만드는 비용을 비교한다.
+ * 요청마다 새로 만드는 상황을 흉내내기 위해 매 호출마다 새 요청을 건다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HalLinksBenchmark {
+
+    private Long id;
+
+    @Setup
+    public void setUp() {
+        id = 1L;
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Link[] webMvcLinkBuilder() {
+        newRequest();
+        return new Link[]{
+                linkTo(EventController.class).slash(id).withSelfRel(),
+                linkTo(EventController.class).slash(id).withRel("update-event"),
+                linkTo(EventController.class).withRel("query-events"),
+                new Link("/docs/index.html#resources-events-create").withRel("profile"),
+                linkTo(methodOn(IndexController.class).index()).withRel("index")
+        };
+    }
+
+    @Benchmark
+    public Link[] halLinks() {
+        newRequest();
+        return new Link[]{
+                HalLinks.event(id, "self"),
+                HalLinks.event(id, "update-event"),
+                HalLinks.events("query-events"),
+                HalLinks.profile("resources-events-create"),
+                HalLinks.index("index")
+        };
+    }
+
+    private void newRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/events");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+}
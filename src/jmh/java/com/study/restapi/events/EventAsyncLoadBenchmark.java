@@ -0,0 +1,143 @@
+package com.study.restapi.events;
+
+import com.study.restapi.RestapiApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 톰캣 스레드를 8개로 제한하고 클라이언트 64개가 동시에 GET /api/events를 호출할 때의 처리량을 비교한다.
+ * H2는 너무 빨라서 커넥션을 얻을 때마다 dbLatencyMillis 만큼 지연을 넣어 원격 DB 왕복을 흉내낸다.
+ * sync는 톰캣 스레드 8개가 DB를 기다리고, async는 EventAsyncExecutor 스레드(32개)가 기다린다.
+ * 보안 설정은 측정 대상이 아니므로 끈다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Threads(64)
+@Fork(1)
+public class EventAsyncLoadBenchmark {
+
+    @Param({"sync", "async"})
+    private String mode;
+
+    @Param({"20", "200"})
+    private int dbLatencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private URL url;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(RestapiApplication.class, DatabaseLatency.class)
+                .profiles("test")
+                // application.properties보다 우선하도록 커맨드라인 인자로 넘긴다.
+                .run("--server.port=0",
+                        "--server.tomcat.max-threads=8",
+                        "--spring.datasource.hikari.maximum-pool-size=40",
+                        "--events.async.endpoints=" + ("async".equals(mode) ? EventMetrics.QUERY : ""),
+                        "--events.async.pool-size=32",
+                        "--events.async.queue-capacity=1000",
+                        "--benchmark.db-latency-millis=" + dbLatencyMillis,
+                        "--spring.autoconfigure.exclude=" +
+                                "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration," +
+                                "org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration," +
+                                "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration," +
+                                "org.springframework.boot.autoconfigure.security.oauth2.OAuth2AutoConfiguration," +
+                                "org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+
+        EventRepository eventRepository = context.getBean(EventRepository.class);
+        for (int i = 0; i < 100; i++) {
+            eventRepository.save(Event.builder()
+                    .name("Spring " + i)
+                    .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                    .eventStatus(EventStatus.DRAFT)
+                    .build());
+        }
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        url = new URL("http://localhost:" + port + "/api/events?size=10");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int queryEvents() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            byte[] buffer = new byte[8192];
+            while (in != null && in.read(buffer) != -1) {
+                // keep-alive로 커넥션을 재사용하려면 본문을 끝까지 읽어야 한다.
+            }
+        }
+        if (status != 200) {
+            throw new IllegalStateException("status " + status);
+        }
+        return status;
+    }
+
+    public static class DatabaseLatency implements BeanPostProcessor, EnvironmentAware {
+
+        private long latencyMillis;
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            latencyMillis = environment.getProperty("benchmark.db-latency-millis", Long.class, 0L);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource)) {
+                return bean;
+            }
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("getConnection")) {
+                            Thread.sleep(latencyMillis);
+                        }
+                        try {
+                            return method.invoke(bean, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.study.restapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.study.restapi.common.ErrorsSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.validation.Validation;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 이벤트 요청 처리 경로의 각 단계를 따로 측정한다.
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="EventPipelineBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventPipelineBenchmark {
+
+    private EventValidator eventValidator;
+    private EventMapper eventMapper;
+    private EventDto eventDto;
+    private EventDto wrongEventDto;
+    private Event event;
+    private Page<Event> page;
+    private PagedResourcesAssembler<Event> assembler;
+    private Errors errors;
+    private ObjectMapper objectMapper;
+    private SpringValidatorAdapter beanValidator;
+
+    @Setup
+    public void setUp() {
+        eventValidator = new EventValidator();
+        eventMapper = new EventMapper();
+        eventDto = EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 11, 11, 11))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 12, 11, 11))
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .endEventDateTime(LocalDateTime.of(2018, 10, 14, 11, 11))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+        wrongEventDto = eventMapper.toEventDto(eventMapper.toEvent(eventDto));
+        wrongEventDto.setBasePrice(10000);
+        wrongEventDto.setEndEventDateTime(LocalDateTime.of(2018, 10, 1, 11, 11));
+
+        event = eventMapper.toEvent(eventDto);
+        event.setId(1L);
+        event.setVersion(0L);
+
+        List<Event> content = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            Event e = eventMapper.toEvent(eventDto);
+            e.setId(i);
+            content.add(e);
+        }
+        page = new PageImpl<>(content, PageRequest.of(1, 10), 30);
+        assembler = new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+
+        errors = new BeanPropertyBindingResult(wrongEventDto, "eventDto");
+        eventValidator.validate(wrongEventDto, errors);
+
+        beanValidator = new SpringValidatorAdapter(Validation.buildDefaultValidatorFactory().getValidator());
+
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new SimpleModule().addSerializer(Errors.class, new ErrorsSerializer()));
+
+        // linkTo()가 현재 요청을 기준으로 링크를 만들기 때문에 가짜 요청을 걸어둔다.
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Errors validate() {
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        eventValidator.validate(eventDto, errors);
+        return errors;
+    }
+
+    /*
+     * 예전 createEvent가 EventValidator 앞에서 @Valid로 하던 검사. validate()와 비교한다.
+     */
+    @Benchmark
+    public Errors beanValidate() {
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        beanValidator.validate(eventDto, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Errors validateWithErrors() {
+        Errors errors = new BeanPropertyBindingResult(wrongEventDto, "eventDto");
+        eventValidator.validate(wrongEventDto, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Event update() {
+        event.update();
+        return event;
+    }
+
+    @Benchmark
+    public Event map() {
+        return eventMapper.toEvent(eventDto);
+    }
+
+    @Benchmark
+    public EventResource assembleEventResource() {
+        return new EventResource(event);
+    }
+
+    @Benchmark
+    public PagedModel<EntityModel<Event>> assemblePagedModel() {
+        return assembler.toModel(page);
+    }
+
+    @Benchmark
+    public byte[] serializeErrors() throws Exception {
+        return objectMapper.writeValueAsBytes(errors);
+    }
+
+}
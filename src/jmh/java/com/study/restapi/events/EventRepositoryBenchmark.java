@@ -0,0 +1,90 @@
+package com.study.restapi.events;
+
+import com.study.restapi.RestapiApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * test 프로파일(H2 인메모리)로 애플리케이션을 띄워서 저장소 경로를 측정한다.
+ * secondLevelCache=false 이면 JPA 2차 캐시와 쿼리 캐시를 끄고 같은 경로를 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventRepositoryBenchmark {
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private EventRepository eventRepository;
+    private Long eventId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(RestapiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // properties()로 준 값은 application.properties에 덮이므로 커맨드라인 인자로 넘긴다.
+                .run("--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache);
+        eventRepository = context.getBean(EventRepository.class);
+        eventId = eventRepository.save(newEvent()).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object findById() {
+        return eventRepository.findById(eventId);
+    }
+
+    @Benchmark
+    public Event save() {
+        return eventRepository.save(newEvent());
+    }
+
+    private Event newEvent() {
+        Event event = Event.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 11, 11, 11))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 12, 11, 11))
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .endEventDateTime(LocalDateTime.of(2018, 10, 14, 11, 11))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .eventStatus(EventStatus.DRAFT)
+                .build();
+        event.update();
+        return event;
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.study.restapi.events;
+
+import com.study.restapi.RestapiApplication;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 조회 조건별로 목록 조회(findSummaries(search, pageable))를 측정한다. rows를 늘려도 처리량이 크게 떨어지지 않아야 한다.
+ * 측정 전에 조건마다 실제로 생성된 SQL의 H2 실행 계획(EXPLAIN)을 출력한다.
+ * 인덱스를 타지 않으면 계획에 "tableScan"이 나온다.
+ * 같은 조건을 반복해서 조회하므로 쿼리 캐시는 끄고 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSearchBenchmark {
+
+    private static final String[] LOCATIONS = {"강남역", "판교역", "잠실역", "홍대입구역", "서울역", "신촌역", "사당역", "건대입구역"};
+    private static final LocalDateTime BASE = LocalDateTime.of(2018, 1, 1, 0, 0);
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    @Param({"status_event_window", "location", "offline_free_event_window", "price_range", "enrollment_window"})
+    private String scenario;
+
+    private ConfigurableApplicationContext context;
+    private EventRepository eventRepository;
+    private EventSearch search;
+    private PageRequest pageRequest = PageRequest.of(0, 20);
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(RestapiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // properties()로 준 값은 application.properties에 덮이므로 커맨드라인 인자로 넘긴다.
+                .run("--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SqlCapture.class.getName());
+        eventRepository = context.getBean(EventRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        insertEvents(jdbcTemplate);
+        // 인덱스 선택에 쓰이는 통계를 갱신한다.
+        jdbcTemplate.execute("ANALYZE");
+
+        search = search(scenario);
+        explain(jdbcTemplate);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<EventSummary> findSummaries() {
+        return eventRepository.findSummaries(search, pageRequest);
+    }
+
+    private EventSearch search(String scenario) {
+        EventSearch search = new EventSearch();
+        switch (scenario) {
+            case "status_event_window":
+                search.setEventStatus(EventStatus.PUBLISHED);
+                search.setEventFrom(BASE.plusDays(100));
+                search.setEventTo(BASE.plusDays(107));
+                break;
+            case "location":
+                search.setLocation("판교역");
+                break;
+            case "offline_free_event_window":
+                search.setOffline(true);
+                search.setFree(true);
+                search.setEventFrom(BASE.plusDays(100));
+                search.setEventTo(BASE.plusDays(130));
+                break;
+            case "price_range":
+                search.setPriceFrom(100);
+                search.setPriceTo(120);
+                break;
+            case "enrollment_window":
+                search.setEnrollmentFrom(BASE.plusDays(200));
+                search.setEnrollmentTo(BASE.plusDays(201));
+                break;
+            default:
+                throw new IllegalArgumentException(scenario);
+        }
+        return search;
+    }
+
+    /*
+     * 바인딩 값은 EventSearch가 조건을 붙이는 순서와 같다. (리터럴로 바꿔서 EXPLAIN 한다)
+     */
+    private void explain(JdbcTemplate jdbcTemplate) {
+        SqlCapture.last = null;
+        eventRepository.findAll(search);
+        String sql = SqlCapture.last;
+        for (Object value : parameters(search)) {
+            sql = sql.replaceFirst("\\?", literal(value));
+        }
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        System.out.println();
+        System.out.println("[" + scenario + ", rows=" + rows + "] " + (plan.contains("tableScan") ? "FULL SCAN" : "INDEX"));
+        System.out.println(plan);
+    }
+
+    private List<Object> parameters(EventSearch search) {
+        List<Object> parameters = new ArrayList<>();
+        Object[] values = {search.getEventStatus(), search.getFree(), search.getOffline(), search.getLocation(),
+                search.getPriceFrom(), search.getPriceTo(), search.getEnrollmentFrom(), search.getEnrollmentTo(),
+                search.getEventFrom(), search.getEventTo()};
+        for (Object value : values) {
+            if (value != null) {
+                parameters.add(value);
+            }
+        }
+        return parameters;
+    }
+
+    private String literal(Object value) {
+        if (value instanceof LocalDateTime) {
+            return "TIMESTAMP '" + Timestamp.valueOf((LocalDateTime) value) + "'";
+        }
+        if (value instanceof String || value instanceof Enum) {
+            return "'" + value + "'";
+        }
+        return String.valueOf(value);
+    }
+
+    private void insertEvents(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        EventStatus[] statuses = EventStatus.values();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 1; i <= rows; i++) {
+            LocalDateTime beginEnrollment = BASE.plusDays(random.nextInt(1000)).plusMinutes(random.nextInt(1440));
+            LocalDateTime beginEvent = beginEnrollment.plusDays(1 + random.nextInt(30));
+            String location = random.nextInt(5) == 0 ? null : LOCATIONS[random.nextInt(LOCATIONS.length)];
+            int basePrice = random.nextInt(4) == 0 ? 0 : random.nextInt(1000);
+            int maxPrice = basePrice == 0 && random.nextBoolean() ? 0 : basePrice + random.nextInt(1000);
+            batch.add(new Object[]{(long) i, 0L, "Spring " + i, "REST API Development with Spring",
+                    Timestamp.valueOf(beginEnrollment), Timestamp.valueOf(beginEnrollment.plusDays(1)),
+                    Timestamp.valueOf(beginEvent), Timestamp.valueOf(beginEvent.plusHours(2)),
+                    location, basePrice, maxPrice, 100, location != null, basePrice == 0 && maxPrice == 0,
+                    statuses[random.nextInt(statuses.length)].name()});
+            if (batch.size() == 1000 || i == rows) {
+                jdbcTemplate.batchUpdate("insert into event (id, version, name, description, " +
+                        "begin_enrollment_date_time, close_enrollment_date_time, begin_event_date_time, end_event_date_time, " +
+                        "location, base_price, max_price, limit_of_enrollment, offline, free, event_status) " +
+                        "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static volatile String last;
+
+        @Override
+        public String inspect(String sql) {
+            last = sql;
+            return sql;
+        }
+
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.study.restapi.events;
+
+import com.study.restapi.RestapiApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * application-prod.properties의 설정을 하나씩 빼면서 처리량을 비교한다.
+ *   dev           : application.properties 그대로 (SQL, 바인딩 값 로그 켜짐)
+ *   prod          : prod 프로파일
+ *   prod_no_batch : prod에서 jdbc.batch_size=1
+ *   prod_pool_2   : prod에서 maximum-pool-size=2
+ * 로그는 target/jmh-jdbc.log 파일로만 남긴다. 2차 캐시와 쿼리 캐시는 끄고 JDBC 경로만 잰다.
+ * queryPage는 트랜잭션 안에서 holdMillis 만큼 커넥션을 잡고 있어서(원격 DB 왕복 흉내) 풀 크기의 영향이 보인다.
+ *
+ * 기본은 H2(test 프로파일)라서 MySQL 드라이버 옵션(prepared statement 캐시, rewriteBatchedStatements)은 측정되지 않는다.
+ * 로컬 MySQL로 재려면 -p url=jdbc:mysql://localhost:3306/test?... 로 prod의 URL 옵션을 붙여서 넘긴다.
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="JdbcTuningBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(16)
+@Fork(1)
+public class JdbcTuningBenchmark {
+
+    private static final int EVENTS_PER_SAVE = 50;
+
+    @Param({"dev", "prod", "prod_no_batch", "prod_pool_2"})
+    private String preset;
+
+    @Param("")
+    private String url;
+
+    @Param("5")
+    private int holdMillis;
+
+    private ConfigurableApplicationContext context;
+    private EventRepository eventRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private PageRequest pageRequest = PageRequest.of(0, 20);
+
+    @Setup
+    public void setUp() {
+        List<String> args = new ArrayList<>();
+        // properties()로 준 값은 application.properties에 덮이므로 커맨드라인 인자로 넘긴다.
+        args.add("--logging.file.name=target/jmh-jdbc.log");
+        args.add("--logging.pattern.console=");
+        args.add("--spring.jpa.properties.hibernate.cache.use_second_level_cache=false");
+        args.add("--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        if ("prod_no_batch".equals(preset)) {
+            args.add("--spring.jpa.properties.hibernate.jdbc.batch_size=1");
+        }
+        if ("prod_pool_2".equals(preset)) {
+            args.add("--spring.datasource.hikari.maximum-pool-size=2");
+            args.add("--spring.datasource.hikari.minimum-idle=2");
+        }
+
+        List<String> profiles = new ArrayList<>();
+        if (preset.startsWith("prod")) {
+            profiles.add("prod");
+        }
+        if (url.isEmpty()) {
+            // test 프로파일의 H2 URL이 prod의 MySQL URL을 덮도록 마지막에 둔다.
+            profiles.add("test");
+        } else {
+            args.add("--spring.datasource.url=" + url);
+        }
+
+        context = new SpringApplicationBuilder(RestapiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles.toArray(new String[0]))
+                .run(args.toArray(new String[0]));
+        eventRepository = context.getBean(EventRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        if (url.isEmpty()) {
+            jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS SLEEP FOR \"java.lang.Thread.sleep(long)\"");
+        }
+        for (int i = 0; i < 5; i++) {
+            saveEvents();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /*
+     * 이벤트 일괄 생성과 같은 경로. batch_size, order_inserts, rewriteBatchedStatements의 효과를 본다.
+     */
+    @Benchmark
+    public Object saveEvents() {
+        return transactionTemplate.execute(status -> {
+            List<Event> events = new ArrayList<>(EVENTS_PER_SAVE);
+            for (int i = 0; i < EVENTS_PER_SAVE; i++) {
+                events.add(newEvent(i));
+            }
+            return eventRepository.saveAll(events);
+        });
+    }
+
+    /*
+     * 목록 조회 한 번. 풀 크기, fetch_size, SQL 로그의 효과를 본다.
+     */
+    @Benchmark
+    public Object queryPage() {
+        return transactionTemplate.execute(status -> {
+            if (url.isEmpty()) {
+                jdbcTemplate.execute("CALL SLEEP(" + holdMillis + ")");
+            } else {
+                jdbcTemplate.execute("DO SLEEP(" + holdMillis / 1000.0 + ")");
+            }
+            return eventRepository.findSummaries(null, pageRequest);
+        });
+    }
+
+    private Event newEvent(int index) {
+        Event event = Event.builder()
+                .name("Spring " + index)
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 11, 11, 11))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 12, 11, 11))
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .endEventDateTime(LocalDateTime.of(2018, 10, 14, 11, 11))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .eventStatus(EventStatus.DRAFT)
+                .build();
+        event.update();
+        return event;
+    }
+
+}
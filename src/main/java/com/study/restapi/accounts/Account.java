@@ -1,11 +1,17 @@
 package com.study.restapi.accounts;
 
+import com.study.restapi.common.JpaCacheConfig;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = JpaCacheConfig.ACCOUNT_REGION)
+@EntityListeners(AccountEntityListener.class)
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder
 @NoArgsConstructor
@@ -15,11 +21,18 @@ public class Account {
     @Id @GeneratedValue
     private Long id;
 
+    // roles(컬렉션)만 바뀌어도 버전이 올라가면서 Account에 UPDATE가 나가므로 AccountEntityListener가 불린다.
+    // ddl-auto=update로 기존 테이블에 추가될 때 이미 있는 행이 NULL이 되지 않도록 기본값을 둔다.
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     private String email;
 
     private String password;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = JpaCacheConfig.ACCOUNT_ROLES_REGION)
     @Enumerated(EnumType.STRING)
     private Set<AccountRole> roles;
 
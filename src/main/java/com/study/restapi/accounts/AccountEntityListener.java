@@ -0,0 +1,43 @@
+package com.study.restapi.accounts;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/*
+ * Account의 비밀번호, email, roles가 바뀌면 캐싱된 UserDetails를 지운다.
+ * roles만 바뀌어도 Account의 version이 올라가면서 UPDATE가 나가므로 PostUpdate가 불린다.
+ * Hibernate가 스프링 빈 컨테이너를 통해 생성하므로 주입을 받을 수 있다.
+ * PostUpdate는 커밋 전에 불리므로, 그 사이에 로그인한 요청이 바뀌기 전 값을 다시 캐싱하지 않도록 커밋한 뒤에 지운다.
+ */
+public class AccountEntityListener {
+
+    private final AccountUserCache accountUserCache;
+
+    public AccountEntityListener(AccountUserCache accountUserCache) {
+        this.accountUserCache = accountUserCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void evict(Account account) {
+        // 커밋할 때까지 엔티티가 더 바뀔 수 있으므로 지금 값을 떠둔다.
+        Account evicted = Account.builder()
+                .id(account.getId())
+                .email(account.getEmail())
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accountUserCache.evict(evicted);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                accountUserCache.evict(evicted);
+            }
+        });
+    }
+
+}
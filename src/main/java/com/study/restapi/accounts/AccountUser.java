@@ -0,0 +1,29 @@
+package com.study.restapi.accounts;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/*
+ * 인증된 사용자가 어떤 Account인지 알 수 있도록 id를 같이 들고 있는 UserDetails.
+ */
+public class AccountUser extends User {
+
+    private final Long accountId;
+
+    public AccountUser(Long accountId, String username, String password,
+                       Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.accountId = accountId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public AccountUser copy() {
+        return new AccountUser(accountId, getUsername(), getPassword(), getAuthorities());
+    }
+
+}
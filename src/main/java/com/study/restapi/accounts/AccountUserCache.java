@@ -0,0 +1,78 @@
+package com.study.restapi.accounts;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+ * 인증할 때마다 Account와 roles를 다시 조회하지 않도록 UserDetails를 email 단위로 캐싱한다.
+ * 인증이 끝나면 ProviderManager가 principal의 비밀번호를 지우기 때문에(eraseCredentials)
+ * 캐시에 있는 객체를 그대로 주지 않고 복사본을 준다.
+ */
+@Component
+public class AccountUserCache implements UserCache, MeterBinder {
+
+    private final Cache<String, AccountUser> cache;
+
+    public AccountUserCache(@Value("${accounts.user-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${accounts.user-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        AccountUser user = cache.getIfPresent(username);
+        if (user == null) {
+            return null;
+        }
+        return user.copy();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (user instanceof AccountUser && user.getPassword() != null) {
+            cache.put(user.getUsername(), (AccountUser) user);
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+    }
+
+    /*
+     * email이 바뀐 경우에도 이전 email로 캐싱된 항목이 남지 않도록 id로도 찾아서 지운다.
+     * Account 변경은 드물기 때문에 전체를 훑어도 괜찮다.
+     */
+    public void evict(Account account) {
+        if (account.getEmail() != null) {
+            cache.invalidate(account.getEmail());
+        }
+        if (account.getId() != null) {
+            cache.asMap().values().removeIf(user -> account.getId().equals(user.getAccountId()));
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "accountUsers");
+    }
+
+}
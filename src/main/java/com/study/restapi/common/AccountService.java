@@ -3,37 +3,63 @@ package com.study.restapi.common;
 import com.study.restapi.accounts.Account;
 import com.study.restapi.accounts.AccountRepository;
 import com.study.restapi.accounts.AccountRole;
+import com.study.restapi.accounts.AccountUser;
+import com.study.restapi.accounts.AccountUserCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class AccountService implements UserDetailsService {
 
+    // role마다 권한 객체는 하나만 만들어서 같이 쓴다.
+    private static final Map<AccountRole, GrantedAuthority> AUTHORITIES = new EnumMap<>(AccountRole.class);
+
+    static {
+        for (AccountRole role : AccountRole.values()) {
+            AUTHORITIES.put(role, new SimpleGrantedAuthority("ROLE_" + role.name()));
+        }
+    }
+
     @Autowired
     AccountRepository accountRepository;
 
+    @Autowired
+    AccountUserCache accountUserCache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails cached = accountUserCache.getUserFromCache(username);
+        if (cached != null) {
+            return cached;
+        }
+
         Account account = accountRepository.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException(username));
 
-        return  new User(account.getEmail(), account.getPassword(), authorities(account.getRoles()));
+        AccountUser user = new AccountUser(account.getId(), account.getEmail(), account.getPassword(),
+                authorities(account.getRoles()));
+        accountUserCache.putUserInCache(user);
+        return user.copy();
     }
 
     private Collection<? extends GrantedAuthority> authorities(Set<AccountRole> roles) {
-        return roles.stream()
-                .map(r -> new SimpleGrantedAuthority("ROLE_" + r.name()))
-                .collect(Collectors.toSet());
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (AccountRole role : roles) {
+            authorities.add(AUTHORITIES.get(role));
+        }
+        return authorities;
     }
 
 }
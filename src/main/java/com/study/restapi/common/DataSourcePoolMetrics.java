@@ -0,0 +1,56 @@
+package com.study.restapi.common;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/*
+ * 커넥션 풀 포화도. 개수(active, idle, pending)는 스프링 부트가 hikaricp.connections.* 로 내보내므로
+ * 여기서는 풀이 얼마나 찼는지(active / maximum-pool-size)만 더한다.
+ * 1에 붙어 있으면서 hikaricp.connections.pending이 0보다 크면 풀이 작거나 커넥션을 오래 잡고 있는 것이다.
+ */
+@Component
+public class DataSourcePoolMetrics implements MeterBinder {
+
+    private final DataSource dataSource;
+
+    public DataSourcePoolMetrics(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        HikariDataSource hikari = unwrap();
+        if (hikari == null) {
+            return;
+        }
+        Gauge.builder("jdbc.pool.saturation", hikari, DataSourcePoolMetrics::saturation)
+                .tag("pool", String.valueOf(hikari.getPoolName()))
+                .description("active connections / maximum pool size")
+                .register(registry);
+    }
+
+    private HikariDataSource unwrap() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    // 풀은 처음 커넥션을 얻을 때 만들어지므로 그 전에는 0이다.
+    private static double saturation(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0;
+        }
+        return (double) pool.getActiveConnections() / hikari.getMaximumPoolSize();
+    }
+
+}
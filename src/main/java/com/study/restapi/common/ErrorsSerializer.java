@@ -1,50 +1,166 @@
 package com.study.restapi.common;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import org.springframework.boot.jackson.JsonComponent;
 import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/*
+ * 필드 이름은 미리 인코딩해둔 SerializedString으로 쓴다.
+ * rejectedValue가 없는 오류(global error, wrongPrices 등)는 내용이 항상 같으므로 JSON을 한 번만 만들어서 그대로 쓴다.
+ * 메시지에 요청의 내용(잘못된 JSON, 커서, 검색어 등)이 들어간 오류는 인자(arguments)와 함께 reject 하고, 캐시하지 않는다.
+ * 캐시는 MAX_CACHED_ERRORS 개까지만 채우고 그 뒤로는 매번 쓴다.
+ */
 @JsonComponent
 public class ErrorsSerializer extends JsonSerializer<Errors> {
 
+    private static final SerializedString FIELD = new SerializedString("field");
+    private static final SerializedString OBJECT_NAME = new SerializedString("objectName");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString DEFAULT_MESSAGE = new SerializedString("defaultMessage");
+    private static final SerializedString REJECTED_VALUE = new SerializedString("rejectedValue");
+
+    private static final int MAX_CACHED_ERRORS = 512;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // code -> 같은 code를 가진 오류들. 조회할 때 키 객체를 만들지 않도록 code로만 찾고 나머지는 비교한다.
+    private final Map<String, CachedError[]> cache = new ConcurrentHashMap<>();
+    private final AtomicInteger cachedCount = new AtomicInteger();
+
     @Override
     public void serialize(Errors errors, JsonGenerator gen, SerializerProvider serializerProvider) throws IOException {
         gen.writeStartArray();
 
-        errors.getFieldErrors().forEach(e -> {
-            try {
-                gen.writeStartObject();
-                gen.writeStringField("field", e.getField());
-                gen.writeStringField("objectName", e.getObjectName());
-                gen.writeStringField("code", e.getCode());
-                gen.writeStringField("defaultMessage", e.getDefaultMessage());
-                Object rejectedValue = e.getRejectedValue();
-                if(rejectedValue != null) {
-                    gen.writeStringField("rejectedValue", rejectedValue.toString());
-                }
-                gen.writeEndObject();
-            } catch (IOException e1) {
-                e1.printStackTrace();
+        List<FieldError> fieldErrors = errors.getFieldErrors();
+        for (int i = 0; i < fieldErrors.size(); i++) {
+            FieldError error = fieldErrors.get(i);
+            if (error.getRejectedValue() == null && isFixed(error)) {
+                gen.writeRawValue(cached(error.getObjectName(), error.getField(), error.getCode(), error.getDefaultMessage()));
+            } else if (error.getRejectedValue() == null) {
+                gen.writeRawValue(render(error.getObjectName(), error.getField(), error.getCode(), error.getDefaultMessage()));
+            } else {
+                writeError(gen, error.getObjectName(), error.getField(), error.getCode(), error.getDefaultMessage(),
+                        error.getRejectedValue());
             }
-        });
-
-        errors.getGlobalErrors().forEach(e -> {
-            try {
-                gen.writeStartObject();
-                gen.writeStringField("objectName", e.getObjectName());
-                gen.writeStringField("code", e.getCode());
-                gen.writeStringField("defaultMessage", e.getDefaultMessage());
-                gen.writeEndObject();
-            } catch (IOException e1) {
-                e1.printStackTrace();
+        }
+
+        List<ObjectError> globalErrors = errors.getGlobalErrors();
+        for (int i = 0; i < globalErrors.size(); i++) {
+            ObjectError error = globalErrors.get(i);
+            if (isFixed(error)) {
+                gen.writeRawValue(cached(error.getObjectName(), null, error.getCode(), error.getDefaultMessage()));
+            } else {
+                gen.writeRawValue(render(error.getObjectName(), null, error.getCode(), error.getDefaultMessage()));
             }
-        });
+        }
 
         gen.writeEndArray();
     }
 
+    int size() {
+        return cachedCount.get();
+    }
+
+    private static boolean isFixed(ObjectError error) {
+        return error.getArguments() == null || error.getArguments().length == 0;
+    }
+
+    private SerializableString cached(String objectName, String field, String code, String defaultMessage)
+            throws IOException {
+        if (code == null) {
+            return render(objectName, field, null, defaultMessage);
+        }
+        CachedError[] candidates = cache.get(code);
+        if (candidates != null) {
+            for (CachedError candidate : candidates) {
+                if (candidate.matches(objectName, field, defaultMessage)) {
+                    return candidate.json;
+                }
+            }
+        }
+
+        SerializableString json = render(objectName, field, code, defaultMessage);
+        if (cachedCount.get() < MAX_CACHED_ERRORS) {
+            CachedError added = new CachedError(objectName, field, defaultMessage, json);
+            cache.merge(code, new CachedError[]{added}, (present, value) -> {
+                CachedError[] merged = Arrays.copyOf(present, present.length + 1);
+                merged[present.length] = added;
+                return merged;
+            });
+            cachedCount.incrementAndGet();
+        }
+        return json;
+    }
+
+    private SerializableString render(String objectName, String field, String code, String defaultMessage)
+            throws IOException {
+        // 스레드마다 하나씩 있는 JsonFactory의 BufferRecycler에서 버퍼를 빌려 쓰고 돌려준다. (생성기도 같은 것을 쓴다)
+        ByteArrayBuilder bytes = new ByteArrayBuilder(JSON_FACTORY._getBufferRecycler());
+        try {
+            try (JsonGenerator gen = JSON_FACTORY.createGenerator(bytes)) {
+                writeError(gen, objectName, field, code, defaultMessage, null);
+            }
+            return new SerializedString(new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            bytes.release();
+        }
+    }
+
+    private void writeError(JsonGenerator gen, String objectName, String field, String code, String defaultMessage,
+                            Object rejectedValue) throws IOException {
+        gen.writeStartObject();
+        if (field != null) {
+            gen.writeFieldName(FIELD);
+            gen.writeString(field);
+        }
+        gen.writeFieldName(OBJECT_NAME);
+        gen.writeString(objectName);
+        gen.writeFieldName(CODE);
+        gen.writeString(code);
+        gen.writeFieldName(DEFAULT_MESSAGE);
+        gen.writeString(defaultMessage);
+        if (rejectedValue != null) {
+            gen.writeFieldName(REJECTED_VALUE);
+            gen.writeString(rejectedValue instanceof String ? (String) rejectedValue : rejectedValue.toString());
+        }
+        gen.writeEndObject();
+    }
+
+    private static final class CachedError {
+
+        private final String objectName;
+        private final String field;
+        private final String defaultMessage;
+        private final SerializableString json;
+
+        CachedError(String objectName, String field, String defaultMessage, SerializableString json) {
+            this.objectName = objectName;
+            this.field = field;
+            this.defaultMessage = defaultMessage;
+            this.json = json;
+        }
+
+        boolean matches(String objectName, String field, String defaultMessage) {
+            return Objects.equals(this.objectName, objectName) && Objects.equals(this.field, field)
+                    && Objects.equals(this.defaultMessage, defaultMessage);
+        }
+
+    }
+
 }
@@ -0,0 +1,92 @@
+package com.study.restapi.common;
+
+import com.study.restapi.events.EventController;
+import com.study.restapi.index.IndexController;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.Link;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.AnnotatedElement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * linkTo(methodOn(...))는 요청마다 컨트롤러 매핑을 찾고 프록시를 만든다.
+ * 여기서는 컨트롤러 경로를 클래스 로딩 시점에 한 번만 읽어두고, 요청마다 base URI만 붙여서 링크를 만든다.
+ * base URI는 X-Forwarded-* / Forwarded 헤더를 반영하고 요청 속성에 캐싱한다.
+ * DispatcherServlet이 "/"에 매핑되어 있다고 가정한다.
+ */
+public final class HalLinks {
+
+    private static final String BASE_URI_ATTRIBUTE = HalLinks.class.getName() + ".BASE_URI";
+    private static final String X_FORWARDED_PREFIX = "X-Forwarded-Prefix";
+
+    private static final String EVENTS_PATH = path(EventController.class);
+    private static final String INDEX_PATH = path(ReflectionUtils.findMethod(IndexController.class, "index"));
+
+    private static final Map<String, Link> PROFILES = new ConcurrentHashMap<>();
+
+    private HalLinks() {
+    }
+
+    public static Link events(String rel) {
+        return new Link(eventsUri(), rel);
+    }
+
+    public static Link event(Long id, String rel) {
+        return new Link(eventUri(id), rel);
+    }
+
+    public static Link index(String rel) {
+        return new Link(baseUri() + INDEX_PATH, rel);
+    }
+
+    public static Link profile(String anchor) {
+        return PROFILES.computeIfAbsent(anchor, a -> new Link("/docs/index.html#" + a, "profile"));
+    }
+
+    public static String eventsUri() {
+        return baseUri() + EVENTS_PATH;
+    }
+
+    public static String eventUri(Long id) {
+        return baseUri() + EVENTS_PATH + "/" + id;
+    }
+
+    public static String baseUri() {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        String baseUri = (String) attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = resolveBaseUri(((ServletRequestAttributes) attributes).getRequest());
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+
+    private static String resolveBaseUri(HttpServletRequest request) {
+        String prefix = request.getHeader(X_FORWARDED_PREFIX);
+        String path = (prefix == null ? "" : StringUtils.trimTrailingCharacter(prefix, '/')) + request.getContextPath();
+        return UriComponentsBuilder.fromHttpRequest(new ServletServerHttpRequest(request))
+                .replacePath(path)
+                .replaceQuery(null)
+                .build()
+                .toUriString();
+    }
+
+    private static String path(AnnotatedElement element) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+        if (mapping == null || mapping.path().length == 0) {
+            return "";
+        }
+        return mapping.path()[0];
+    }
+
+}
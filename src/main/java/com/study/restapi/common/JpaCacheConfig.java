@@ -0,0 +1,111 @@
+package com.study.restapi.common;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+ * JPA 2차 캐시(Caffeine JCache). 영역마다 최대 개수와 만료 시간을 따로 둔다.
+ * 설정하지 않은 영역이 생기면 크기 제한 없이 만들어지므로 missing_cache_strategy=fail 로 막는다.
+ * 테스트에서 컨텍스트가 여러 개 뜰 수 있어서 컨텍스트마다 CacheManager를 따로 만든다.
+ */
+@Configuration
+public class JpaCacheConfig {
+
+    public static final String EVENT_REGION = "event";
+    public static final String ACCOUNT_REGION = "account";
+    public static final String ACCOUNT_ROLES_REGION = "account.roles";
+    public static final String EVENT_QUERY_REGION = "event-queries";
+
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    private static final String DEFAULT_QUERY_REGION = "default-query-results-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager jpaCacheManager(@Value("${jpa.cache.event.maximum-size:10000}") long eventMaximumSize,
+                                        @Value("${jpa.cache.event.expire-after-write:10m}") Duration eventExpireAfterWrite,
+                                        @Value("${jpa.cache.account.maximum-size:1000}") long accountMaximumSize,
+                                        @Value("${jpa.cache.account.expire-after-write:10m}") Duration accountExpireAfterWrite,
+                                        @Value("${jpa.cache.query.maximum-size:1000}") long queryMaximumSize,
+                                        @Value("${jpa.cache.query.expire-after-write:1m}") Duration queryExpireAfterWrite) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("jpa-" + System.identityHashCode(this)), provider.getDefaultClassLoader());
+
+        cacheManager.createCache(EVENT_REGION, region(eventMaximumSize, eventExpireAfterWrite));
+        cacheManager.createCache(ACCOUNT_REGION, region(accountMaximumSize, accountExpireAfterWrite));
+        cacheManager.createCache(ACCOUNT_ROLES_REGION, region(accountMaximumSize, accountExpireAfterWrite));
+        cacheManager.createCache(EVENT_QUERY_REGION, region(queryMaximumSize, queryExpireAfterWrite));
+        cacheManager.createCache(DEFAULT_QUERY_REGION, region(queryMaximumSize, queryExpireAfterWrite));
+        // 테이블마다 마지막 수정 시각을 담는다. 항목이 테이블 수만큼만 생기고, 지워지면 쿼리 캐시가 틀린 결과를 줄 수 있으므로 제한하지 않는다.
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jpaCacheCustomizer(CacheManager jpaCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, jpaCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /*
+     * 영역별 적중률. 요청 수, 적중 수는 HibernateMetrics가 hibernate.second.level.cache.requests로 따로 내보낸다.
+     */
+    @Bean
+    public MeterBinder jpaCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            if (!statistics.isStatisticsEnabled()) {
+                return;
+            }
+            for (String region : new String[]{EVENT_REGION, ACCOUNT_REGION, ACCOUNT_ROLES_REGION}) {
+                hitRatio(registry, statistics, region, s -> s.getDomainDataRegionStatistics(region));
+            }
+            hitRatio(registry, statistics, EVENT_QUERY_REGION, s -> s.getQueryRegionStatistics(EVENT_QUERY_REGION));
+        };
+    }
+
+    private void hitRatio(MeterRegistry registry, Statistics statistics, String region,
+                          Function<Statistics, CacheRegionStatistics> regionStatistics) {
+        Gauge.builder("jpa.cache.hit.ratio", statistics, s -> {
+            CacheRegionStatistics stats = regionStatistics.apply(s);
+            if (stats == null) {
+                return 0;
+            }
+            long requests = stats.getHitCount() + stats.getMissCount();
+            return requests == 0 ? 0 : (double) stats.getHitCount() / requests;
+        })
+                .tag("region", region)
+                .description("second level cache hit ratio")
+                .register(registry);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(expireAfterWrite.toMillis())));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.study.restapi.common;
+
+import com.study.restapi.events.EventConcurrencyLimiter;
+import com.study.restapi.events.EventRateLimiter;
+import com.study.restapi.events.EventSerializationMetrics;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final EventSerializationMetrics eventSerializationMetrics;
+    private final EventRateLimiter eventRateLimiter;
+    private final EventConcurrencyLimiter eventConcurrencyLimiter;
+
+    public WebConfig(EventSerializationMetrics eventSerializationMetrics, EventRateLimiter eventRateLimiter,
+                     EventConcurrencyLimiter eventConcurrencyLimiter) {
+        this.eventSerializationMetrics = eventSerializationMetrics;
+        this.eventRateLimiter = eventRateLimiter;
+        this.eventConcurrencyLimiter = eventConcurrencyLimiter;
+    }
+
+    /*
+     * 계정별 한도를 먼저 보고, 통과한 요청만 동시 처리 자리를 잡는다.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(eventRateLimiter).addPathPatterns("/api/events/**");
+        registry.addInterceptor(eventConcurrencyLimiter).addPathPatterns("/api/events/**");
+        registry.addInterceptor(eventSerializationMetrics).addPathPatterns("/api/events/**");
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.study.restapi.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+
+/*
+ * 이벤트별 남은 자리 수를 메모리에 들고 있다가, 다 찼으면 DB까지 가지 않고 바로 거절한다. (노드 로컬)
+ * 실제로 자리를 차지하는 것은 DB의 조건부 UPDATE 이고, 여기는 그 앞에서 걸러내는 역할만 한다.
+ * 남은 자리를 여러 칸(stripe)에 나눠두고 스레드마다 다른 칸에서 빼므로 인기 이벤트에 요청이 몰려도 CAS 경합이 적다.
+ * 다른 노드에서 들어온 신청은 모르기 때문에 실제보다 많이 남았다고 볼 수는 있어도 적게 보지는 않는다.
+ * (모집 인원이 바뀌면 evict 하고, 일정 시간이 지나면 DB 값으로 다시 맞춘다)
+ */
+@Component
+public class EnrollmentAdmission {
+
+    private final Cache<Long, Permits> permits;
+    private final int stripes;
+
+    public EnrollmentAdmission(@Value("${events.enrollment.admission.stripes:8}") int stripes,
+                               @Value("${events.enrollment.admission.maximum-size:10000}") long maximumSize,
+                               @Value("${events.enrollment.admission.expire-after-write:1m}") Duration expireAfterWrite) {
+        this.stripes = stripes;
+        this.permits = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /*
+     * 자리가 남아있으면 하나를 빼고 true를 돌려준다. remainingLoader는 캐시에 없을 때 DB에서 남은 자리 수를 읽는다.
+     * 이벤트가 없으면(loader가 null) 판단하지 않고 true를 돌려준다.
+     */
+    public boolean tryAcquire(Long eventId, Function<Long, Integer> remainingLoader) {
+        Permits eventPermits = permits.get(eventId, id -> {
+            Integer remaining = remainingLoader.apply(id);
+            return remaining == null ? null : new Permits(stripes, remaining);
+        });
+        return eventPermits == null || eventPermits.tryAcquire();
+    }
+
+    /*
+     * 자리를 받았지만 DB 반영에 실패한 경우(예외) 돌려준다.
+     */
+    public void release(Long eventId) {
+        Permits eventPermits = permits.getIfPresent(eventId);
+        if (eventPermits != null) {
+            eventPermits.release();
+        }
+    }
+
+    /*
+     * DB에서 자리가 없다고 확인되면 남은 자리를 모두 없앤다.
+     */
+    public void soldOut(Long eventId) {
+        Permits eventPermits = permits.getIfPresent(eventId);
+        if (eventPermits != null) {
+            eventPermits.drain();
+        }
+    }
+
+    public void evict(Long eventId) {
+        permits.invalidate(eventId);
+    }
+
+    private static class Permits {
+
+        private final AtomicIntegerArray remaining;
+
+        Permits(int stripes, int total) {
+            remaining = new AtomicIntegerArray(stripes);
+            for (int i = 0; i < stripes; i++) {
+                remaining.set(i, total / stripes + (i < total % stripes ? 1 : 0));
+            }
+        }
+
+        /*
+         * 임의의 칸에서 시작해서 남은 자리가 있는 칸을 찾는다. 모든 칸이 비어있으면 다 찬 것이다.
+         */
+        boolean tryAcquire() {
+            int length = remaining.length();
+            int start = ThreadLocalRandom.current().nextInt(length);
+            for (int i = 0; i < length; i++) {
+                int stripe = (start + i) % length;
+                int current;
+                while ((current = remaining.get(stripe)) > 0) {
+                    if (remaining.compareAndSet(stripe, current, current - 1)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        void release() {
+            remaining.incrementAndGet(ThreadLocalRandom.current().nextInt(remaining.length()));
+        }
+
+        void drain() {
+            for (int i = 0; i < remaining.length(); i++) {
+                remaining.set(i, 0);
+            }
+        }
+
+    }
+
+}
@@ -1,8 +1,13 @@
 package com.study.restapi.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.study.restapi.accounts.Account;
+import com.study.restapi.common.JpaCacheConfig;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -10,25 +15,61 @@ import java.time.LocalDateTime;
 @Builder @AllArgsConstructor @NoArgsConstructor @ToString
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Entity
-public class Event {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = JpaCacheConfig.EVENT_REGION)
+// UPDATE에 바뀐 컬럼(과 version)만 넣는다. 이름만 바꾸는 PATCH가 모든 컬럼을 쓰지 않게 한다.
+@DynamicUpdate
+// 목록 조회 조건(EventSearch)에 맞춘 인덱스. 범위 조건인 날짜, 가격 컬럼은 동등 조건 컬럼 뒤에 둔다.
+// free, offline은 값이 두 개뿐이라 단독 인덱스는 만들지 않고 날짜와 묶는다.
+@Table(indexes = {
+        @Index(name = "idx_event_status_begin_event", columnList = "eventStatus, beginEventDateTime"),
+        @Index(name = "idx_event_status_begin_enrollment", columnList = "eventStatus, beginEnrollmentDateTime"),
+        @Index(name = "idx_event_status_close_enrollment", columnList = "eventStatus, closeEnrollmentDateTime"),
+        @Index(name = "idx_event_location_begin_event", columnList = "location, beginEventDateTime"),
+        @Index(name = "idx_event_offline_free_begin_event", columnList = "offline, free, beginEventDateTime"),
+        @Index(name = "idx_event_base_price", columnList = "basePrice"),
+        @Index(name = "idx_event_begin_event", columnList = "beginEventDateTime"),
+        @Index(name = "idx_event_begin_enrollment", columnList = "beginEnrollmentDateTime")
+})
+public class Event implements EventVersion {
 
-    @Id @GeneratedValue
+    static final String ID_SEQUENCE = "event_seq";
+    static final int ID_ALLOCATION_SIZE = 50;
+    // 문자열 컬럼 길이. EventValidator가 이보다 긴 값을 거절한다.
+    static final int TEXT_LENGTH = 255;
+
+    // IDENTITY는 insert 배치를 막으므로 pooled 시퀀스로 50개씩 미리 할당받는다.
+    // 기존 DB의 id와 겹치지 않도록 시작할 때 EventSequenceInitializer가 시퀀스를 올린다.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
+    // 수정될 때마다 증가한다. 본문 대신 ETag 헤더로 노출한다.
+    // ddl-auto=update로 기존 테이블에 추가될 때 이미 있는 행이 NULL이 되지 않도록 기본값을 둔다.
+    @Version @JsonIgnore
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    @Column(length = TEXT_LENGTH)
     private String name;
+    @Column(length = TEXT_LENGTH)
     private String description;
     private LocalDateTime beginEnrollmentDateTime;
     private LocalDateTime closeEnrollmentDateTime;
     private LocalDateTime beginEventDateTime;
     private LocalDateTime endEventDateTime;
+    @Column(length = TEXT_LENGTH)
     private String location; // (optional) 이게 없으면 온라인 모임
     private int basePrice; // (optional)
     private int maxPrice; // (optional)
     private int limitOfEnrollment;
+    // 신청한 인원. EventRepository.enroll의 조건부 UPDATE로만 바뀐다.
+    private int enrolled;
     private boolean offline;
     private boolean free;
     @Enumerated(EnumType.STRING)
     private EventStatus eventStatus = EventStatus.DRAFT;
-    @ManyToOne
+    // 목록, 단건 조회 모두 소유자를 쓰지 않으므로 LAZY로 두고 표현에도 내보내지 않는다.
+    @ManyToOne(fetch = FetchType.LAZY) @JsonIgnore @ToString.Exclude
     private Account account;
 
     // 간단한 비즈니스로직은 도메인에서 처리하는 것도 나쁘지 않다.
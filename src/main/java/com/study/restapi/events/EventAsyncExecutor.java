@@ -0,0 +1,116 @@
+package com.study.restapi.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * 이벤트 엔드포인트를 비동기로 실행할 때 쓰는 전용 스레드 풀. (JDBC 호출이 이 풀의 스레드를 점유한다)
+ * events.async.endpoints에 있는 엔드포인트만 비동기로 실행하고 나머지는 요청 스레드에서 그대로 실행한다.
+ * 큐가 가득 차면 기다리게 하지 않고 바로 503으로 응답한다.
+ * 풀 크기는 커넥션 풀(Hikari) 크기를 넘지 않게 잡는다. 넘으면 커넥션을 기다리는 스레드만 늘어난다.
+ */
+@Component
+public class EventAsyncExecutor implements MeterBinder, DisposableBean {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Set<String> asyncEndpoints;
+    private final ThreadPoolExecutor executor;
+    private Counter rejected;
+
+    public EventAsyncExecutor(@Value("${events.async.endpoints:}") Set<String> asyncEndpoints,
+                              @Value("${events.async.pool-size:10}") int poolSize,
+                              @Value("${events.async.queue-capacity:100}") int queueCapacity) {
+        this.asyncEndpoints = new HashSet<>(asyncEndpoints);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new EventThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean isAsync(String endpoint) {
+        return asyncEndpoints.contains(endpoint);
+    }
+
+    /*
+     * 동기 모드면 ResponseEntity를, 비동기 모드면 CompletableFuture<ResponseEntity>를 돌려준다.
+     * 컨트롤러의 반환 타입이 Object여도 스프링이 실제 값의 타입을 보고 처리한다.
+     */
+    public Object execute(String endpoint, Supplier<ResponseEntity> task) {
+        if (!isAsync(endpoint)) {
+            return task.get();
+        }
+
+        // 요청 스레드의 RequestAttributes는 디스패치가 끝나면 비활성화되므로 요청만 넘겨서 새로 만든다.
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+                try {
+                    return task.get();
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            if (rejected != null) {
+                rejected.increment();
+            }
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+    }
+
+    /*
+     * executor.queued(큐 길이), executor.active, executor.pool.size 등과 거절 수를 기록한다.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "events.async", Tags.empty()).bindTo(registry);
+        rejected = Counter.builder("events.async.rejected")
+                .description("큐가 가득 차서 503으로 응답한 요청 수")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private static class EventThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "events-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
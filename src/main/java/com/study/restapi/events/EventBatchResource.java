@@ -0,0 +1,41 @@
+package com.study.restapi.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.validation.Errors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 일괄 생성 결과. index는 요청 배열에서의 위치이다.
+ */
+@Getter
+public class EventBatchResource extends RepresentationModel<EventBatchResource> {
+
+    private final List<Created> created = new ArrayList<>();
+    private final List<Failed> failed = new ArrayList<>();
+
+    public void addCreated(int index, Long id, String location) {
+        created.add(new Created(index, id, location));
+    }
+
+    public void addFailed(int index, Errors errors) {
+        failed.add(new Failed(index, errors));
+    }
+
+    @Getter @AllArgsConstructor
+    public static class Created {
+        private final int index;
+        private final Long id;
+        private final String location;
+    }
+
+    @Getter @AllArgsConstructor
+    public static class Failed {
+        private final int index;
+        private final Errors errors;
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.study.restapi.events;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.restapi.common.ErrorResource;
+import com.study.restapi.common.HalLinks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/*
+ * 이벤트 배열을 스트리밍으로 읽으면서 하나씩 검증하고, 검증을 통과한 이벤트는 chunk 단위로 모아서 저장한다.
+ * 저장은 hibernate.jdbc.batch_size 만큼 JDBC 배치로 나가고, chunk마다 트랜잭션을 커밋한다.
+ */
+@Service
+public class EventBatchService {
+
+    private final EventRepository eventRepository;
+    private final EventMapper eventMapper;
+    private final EventValidator eventValidator;
+    private final EventSearchIndex eventSearchIndex;
+    private final EventStats eventStats;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public EventBatchService(EventRepository eventRepository, EventMapper eventMapper, EventValidator eventValidator,
+                             EventSearchIndex eventSearchIndex, EventStats eventStats, ObjectMapper objectMapper,
+                             EntityManager entityManager, PlatformTransactionManager transactionManager,
+                             @Value("${events.batch.chunk-size:500}") int chunkSize) {
+        this.eventRepository = eventRepository;
+        this.eventMapper = eventMapper;
+        this.eventValidator = eventValidator;
+        this.eventSearchIndex = eventSearchIndex;
+        this.eventStats = eventStats;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public ResponseEntity createEvents(InputStream body) throws IOException {
+        EventBatchResource result = new EventBatchResource();
+        String eventsUri = HalLinks.eventsUri();
+        List<Event> chunk = new ArrayList<>(chunkSize);
+        List<Integer> indexes = new ArrayList<>(chunkSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return ResponseEntity.badRequest().body(new ErrorResource(wrongJson("request body must be an array.")));
+            }
+
+            JsonStreamContext items = parser.getParsingContext();
+            int index = 0;
+            try {
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken(), index++) {
+                    if (token != JsonToken.START_OBJECT) {
+                        result.addFailed(index, wrongJson("item must be an object."));
+                        if (token == null) {
+                            break;
+                        }
+                        parser.skipChildren();
+                        continue;
+                    }
+
+                    EventDto eventDto;
+                    try {
+                        eventDto = objectMapper.readValue(parser, EventDto.class);
+                    } catch (JsonMappingException e) {
+                        // 모르는 필드, 형식이 틀린 값은 이 항목만 실패시키고 항목의 끝으로 건너뛴다.
+                        result.addFailed(index, wrongJson(e.getOriginalMessage()));
+                        skipToEnd(parser, items);
+                        continue;
+                    }
+                    Errors errors = validate(eventDto);
+                    if (errors != null) {
+                        result.addFailed(index, errors);
+                        continue;
+                    }
+
+                    Event event = eventMapper.toEvent(eventDto);
+                    event.update();
+                    chunk.add(event);
+                    indexes.add(index);
+                    if (chunk.size() >= chunkSize) {
+                        saveChunk(chunk, indexes, eventsUri, result);
+                    }
+                }
+            } catch (JsonParseException e) {
+                // JSON 문법이 깨지면 이후 항목은 읽을 수 없으므로 여기까지 모인 이벤트만 저장한다.
+                result.addFailed(index, wrongJson(e.getOriginalMessage()));
+            }
+        }
+        saveChunk(chunk, indexes, eventsUri, result);
+
+        result.add(HalLinks.profile("resources-events-batch"));
+        if (result.getCreated().isEmpty() && !result.getFailed().isEmpty()) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /*
+     * 대부분의 항목은 통과하므로 먼저 Errors 없이 검사하고, 실패한 항목만 Errors를 만들어 다시 검사한다.
+     */
+    private Errors validate(EventDto eventDto) {
+        if (eventValidator.isValid(eventDto)) {
+            return null;
+        }
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        eventValidator.validate(eventDto, errors);
+        return errors;
+    }
+
+    private void saveChunk(List<Event> chunk, List<Integer> indexes, String eventsUri, EventBatchResource result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.execute(status -> {
+            eventRepository.saveAll(chunk);
+            entityManager.flush();
+            entityManager.clear();
+            return null;
+        });
+        eventSearchIndex.indexAll(chunk);
+        chunk.forEach(eventStats::added);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Long id = chunk.get(i).getId();
+            result.addCreated(indexes.get(i), id, eventsUri + "/" + id);
+        }
+        chunk.clear();
+        indexes.clear();
+    }
+
+    /*
+     * 읽다가 멈춘 항목의 나머지를 건너뛰어서 배열(items) 바로 아래로 돌아온다.
+     */
+    private static void skipToEnd(JsonParser parser, JsonStreamContext items) throws IOException {
+        while (parser.getParsingContext() != items) {
+            if (parser.nextToken() == null) {
+                return;
+            }
+            parser.skipChildren();
+        }
+    }
+
+    // 메시지에 요청의 내용이 들어갈 수 있으므로 인자로도 넘겨서 ErrorsSerializer가 캐시하지 않게 한다.
+    private Errors wrongJson(String message) {
+        Errors errors = new MapBindingResult(new HashMap<>(), "eventDto");
+        errors.reject("wrongJson", new Object[]{message}, message);
+        return errors;
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.study.restapi.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * 이벤트 API 전체에서 동시에 처리 중인 요청 수를 제한한다. (노드 로컬)
+ * 커넥션 풀이 다 차면 요청이 connection-timeout 동안 커넥션을 기다리다가 실패하므로, 그 전에 여기서 max-wait만 기다리고 503으로 거절한다.
+ * 비동기로 실행되는 엔드포인트(EventAsyncExecutor)는 결과를 내보내는 두 번째 디스패치가 끝날 때까지 자리를 잡고 있는다.
+ */
+@Component
+public class EventConcurrencyLimiter implements AsyncHandlerInterceptor, MeterBinder {
+
+    private static final String PERMIT_ATTRIBUTE = EventConcurrencyLimiter.class.getName() + ".PERMIT";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final int limit;
+    private final Duration maxWait;
+    private final Semaphore semaphore;
+    private Counter rejected;
+
+    public EventConcurrencyLimiter(@Value("${events.concurrency.limit:10}") int limit,
+                                   @Value("${events.concurrency.max-wait:100ms}") Duration maxWait) {
+        this.limit = limit;
+        this.maxWait = maxWait;
+        this.semaphore = new Semaphore(limit);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        // 비동기 요청의 두 번째 디스패치는 처음 디스패치에서 잡은 자리를 그대로 쓴다.
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+
+        if (!semaphore.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+            if (rejected != null) {
+                rejected.increment();
+            }
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit());
+        return true;
+    }
+
+    /*
+     * 처리는 다른 스레드에서 계속되므로 여기서는 돌려주지 않는다.
+     * 두 번째 디스패치 없이 끝나는 경우(클라이언트가 끊은 경우 등)에도 돌려주도록 AsyncListener를 건다.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null && request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(permit);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null) {
+            permit.release();
+        }
+    }
+
+    /*
+     * events.concurrency.in-flight가 limit에 붙어 있으면 거절(events.concurrency.rejected)이 늘기 시작한다.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("events.concurrency.in-flight", semaphore, s -> limit - s.availablePermits())
+                .description("처리 중인 이벤트 API 요청 수")
+                .register(registry);
+        rejected = Counter.builder("events.concurrency.rejected")
+                .description("동시 처리 한도를 넘어서 503으로 응답한 요청 수")
+                .register(registry);
+    }
+
+    int available() {
+        return semaphore.availablePermits();
+    }
+
+    /*
+     * afterCompletion과 AsyncListener가 모두 불려도 한 번만 돌려준다.
+     */
+    private class Permit implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+    }
+
+}
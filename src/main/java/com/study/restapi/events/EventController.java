@@ -1,43 +1,150 @@
 package com.study.restapi.events;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import javax.validation.Valid;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE)
 public class EventController {
 
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final EventService eventService;
+    private final EventBatchService eventBatchService;
+    private final EventExporter eventExporter;
+    private final EventAsyncExecutor eventAsyncExecutor;
 
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, EventBatchService eventBatchService,
+                           EventExporter eventExporter, EventAsyncExecutor eventAsyncExecutor) {
         this.eventService = eventService;
+        this.eventBatchService = eventBatchService;
+        this.eventExporter = eventExporter;
+        this.eventAsyncExecutor = eventAsyncExecutor;
     }
 
+    /*
+     * 아래 엔드포인트들은 events.async.endpoints 설정에 따라 요청 스레드 또는 EventAsyncExecutor에서 실행된다.
+     * 그래서 반환 타입이 ResponseEntity 또는 CompletableFuture<ResponseEntity> 이다.
+     */
     @PostMapping
-    public ResponseEntity createEvent(@RequestBody @Valid EventDto eventDto, Errors errors) {
-        return eventService.createEvent(eventDto, errors);
+    public Object createEvent(@RequestBody EventDto eventDto, Errors errors) {
+        return eventAsyncExecutor.execute(EventMetrics.CREATE, () -> eventService.createEvent(eventDto, errors));
+    }
+
+    /*
+     * EventDto 배열을 받아서 한 번에 생성한다. 본문을 한꺼번에 바인딩하지 않고 스트리밍으로 읽는다.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity createEvents(InputStream body) throws IOException {
+        return eventBatchService.createEvents(body);
     }
 
+    /*
+     * after 또는 before 파라미터가 있으면 커서 기반으로 조회한다. 첫 페이지는 after를 빈 값으로 보낸다.
+     * EventSearch의 필드(eventStatus, free, location 등)로 목록을 걸러낼 수 있다.
+     */
     @GetMapping
-    public ResponseEntity queryEvents(Pageable pageable, PagedResourcesAssembler<Event> assembler) {
-        return eventService.queryEvents(pageable, assembler);
+    public Object queryEvents(EventSearch search, Errors errors,
+                                      Pageable pageable, PagedResourcesAssembler<EventSummary> assembler,
+                                      @RequestParam(required = false) String after,
+                                      @RequestParam(required = false) String before,
+                                      @RequestParam(defaultValue = "false") boolean count,
+                                      WebRequest request) {
+        return eventAsyncExecutor.execute(EventMetrics.QUERY, () -> {
+            if (after != null || before != null) {
+                return eventService.queryEventsByCursor(search, errors, after, before, pageable, count, request);
+            }
+            return eventService.queryEvents(search, errors, pageable, assembler, request);
+        });
+    }
+
+    /*
+     * name, description 전문 검색. 결과는 관련도 순서로 페이징된다.
+     */
+    @GetMapping("/search")
+    public Object searchEvents(@RequestParam(required = false) String q, Pageable pageable,
+                               PagedResourcesAssembler<Event> assembler) {
+        return eventAsyncExecutor.execute(EventMetrics.SEARCH, () -> eventService.searchEvents(q, pageable, assembler));
+    }
+
+    /*
+     * 전체 이벤트를 NDJSON(기본) 또는 CSV로 내려받는다. from/to는 이벤트 시작일 기준이다.
+     */
+    @GetMapping(value = "/export", produces = {EventExportFormat.NDJSON_VALUE, EventExportFormat.CSV_VALUE})
+    public void exportEvents(@RequestParam(defaultValue = "ndjson") String format,
+                             @RequestParam(required = false) EventStatus eventStatus,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                             HttpServletResponse response) throws IOException {
+        EventExportFormat exportFormat = EventExportFormat.from(format);
+        if (exportFormat == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "format is wrong.");
+            return;
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"events." + exportFormat.getExtension() + "\"");
+        eventExporter.export(exportFormat, eventStatus, from, to, response.getOutputStream());
+    }
+
+    /*
+     * 상태별, 유료/무료, 오프라인/온라인 개수와 basePrice 분포. DB를 조회하지 않는다.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity getEventStats() {
+        return eventService.getEventStats();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity getEvent(@PathVariable Long id) {
-        return eventService.getEvent(id);
+    public Object getEvent(@PathVariable Long id, WebRequest request) {
+        return eventAsyncExecutor.execute(EventMetrics.GET, () -> eventService.getEvent(id, request));
+    }
+
+    /*
+     * 참가 신청. 성공하면 204, 자리가 없거나 신청 기간이 아니면 409로 응답한다.
+     */
+    @PostMapping("/{id}/enrollments")
+    public Object enrollEvent(@PathVariable Long id) {
+        return eventAsyncExecutor.execute(EventMetrics.ENROLL, () -> eventService.enrollEvent(id));
+    }
+
+    /*
+     * 초안(DRAFT)을 공개한다. 성공하면 204, 이미 공개된 이벤트면 409로 응답한다.
+     */
+    @PostMapping("/{id}/publish")
+    public Object publishEvent(@PathVariable Long id) {
+        return eventAsyncExecutor.execute(EventMetrics.PUBLISH, () -> eventService.publishEvent(id));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity modifyEvent(@PathVariable Long id, @RequestBody @Valid EventDto eventDto, Errors errors) {
-        return eventService.modifyEvent(id, eventDto, errors);
+    public Object modifyEvent(@PathVariable Long id, @RequestBody EventDto eventDto, Errors errors,
+                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return eventAsyncExecutor.execute(EventMetrics.MODIFY, () -> eventService.modifyEvent(id, eventDto, errors, ifMatch));
+    }
+
+    /*
+     * JSON Merge Patch. 본문에 있는 필드만 수정한다. (null은 값을 지운다)
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Object patchEvent(@PathVariable Long id, @RequestBody JsonNode patch,
+                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return eventAsyncExecutor.execute(EventMetrics.PATCH, () -> eventService.patchEvent(id, patch, ifMatch));
     }
 
 }
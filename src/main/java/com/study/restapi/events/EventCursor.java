@@ -0,0 +1,120 @@
+package com.study.restapi.events;
+
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+ * 커서 기반(keyset) 페이징에 사용하는 커서.
+ * 정렬 키와 id를 함께 담아서 다음 페이지를 "(정렬 키, id) > 마지막 행" 조건으로 찾는다.
+ * 클라이언트에게는 Base64로 인코딩된 불투명한 문자열로만 노출한다.
+ * 정렬 키가 NULL인 행도 있으므로 값이 없는 커서는 값 자리를 비우지 않고 아예 뺀다. (빈 문자열과 구분한다)
+ */
+@Getter
+public class EventCursor {
+
+    private static final String DEFAULT_PROPERTY = "id";
+    private static final Map<String, Key> KEYS = new HashMap<>();
+
+    static {
+        KEYS.put("id", new Key(Event::getId, Long::valueOf));
+        KEYS.put("name", new Key(Event::getName, s -> s));
+        KEYS.put("basePrice", new Key(Event::getBasePrice, Integer::valueOf));
+        KEYS.put("maxPrice", new Key(Event::getMaxPrice, Integer::valueOf));
+        KEYS.put("limitOfEnrollment", new Key(Event::getLimitOfEnrollment, Integer::valueOf));
+        KEYS.put("beginEnrollmentDateTime", new Key(Event::getBeginEnrollmentDateTime, LocalDateTime::parse));
+        KEYS.put("closeEnrollmentDateTime", new Key(Event::getCloseEnrollmentDateTime, LocalDateTime::parse));
+        KEYS.put("beginEventDateTime", new Key(Event::getBeginEventDateTime, LocalDateTime::parse));
+        KEYS.put("endEventDateTime", new Key(Event::getEndEventDateTime, LocalDateTime::parse));
+    }
+
+    private final String property;
+    private final Sort.Direction direction;
+    // 첫 페이지 커서는 value와 id가 비어있다.
+    private final Comparable<?> value;
+    private final Long id;
+
+    private EventCursor(String property, Sort.Direction direction, Comparable<?> value, Long id) {
+        this.property = property;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    /*
+     * 정렬 조건의 첫번째 항목만 사용한다. id는 항상 보조 정렬 키로 붙는다.
+     */
+    public static EventCursor first(Sort sort) {
+        Iterator<Sort.Order> orders = sort.iterator();
+        if (!orders.hasNext()) {
+            return new EventCursor(DEFAULT_PROPERTY, Sort.Direction.ASC, null, null);
+        }
+
+        Sort.Order order = orders.next();
+        if (!KEYS.containsKey(order.getProperty())) {
+            throw new IllegalArgumentException("cursor can not be sorted by " + order.getProperty());
+        }
+        return new EventCursor(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    public static EventCursor decode(String token) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("cursor is wrong.", e);
+        }
+
+        // 값에 구분자가 들어갈 수 있으므로 값은 항상 마지막에 둔다. 값이 NULL이면 세 부분만 있다.
+        String[] parts = decoded.split(",", 4);
+        if (parts.length < 3 || !KEYS.containsKey(parts[0])) {
+            throw new IllegalArgumentException("cursor is wrong.");
+        }
+
+        try {
+            Sort.Direction direction = Sort.Direction.fromString(parts[1]);
+            Long id = Long.valueOf(parts[2]);
+            Comparable<?> value = parts.length == 4 ? KEYS.get(parts[0]).parser.apply(parts[3]) : null;
+            return new EventCursor(parts[0], direction, value, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("cursor is wrong.", e);
+        }
+    }
+
+    public String encode() {
+        String raw = property + "," + direction.name() + "," + id + (value == null ? "" : "," + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public EventCursor next(Event event) {
+        return new EventCursor(property, direction, KEYS.get(property).getter.apply(event), event.getId());
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public boolean isIdOnly() {
+        return DEFAULT_PROPERTY.equals(property);
+    }
+
+    private static class Key {
+
+        private final Function<Event, Comparable<?>> getter;
+        private final Function<String, Comparable<?>> parser;
+
+        Key(Function<Event, Comparable<?>> getter, Function<String, Comparable<?>> parser) {
+            this.getter = getter;
+            this.parser = parser;
+        }
+
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.study.restapi.events;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+
+/*
+ * 커서 기반 목록 응답. totalElements는 클라이언트가 count=true로 요청했을 때만 채워진다.
+ */
+public class EventCursorResources extends CollectionModel<EventResource> {
+
+    private final Long totalElements;
+
+    public EventCursorResources(Iterable<EventResource> content, Long totalElements, Link... links) {
+        super(content, links);
+        this.totalElements = totalElements;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+}
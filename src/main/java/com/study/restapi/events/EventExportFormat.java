@@ -0,0 +1,39 @@
+package com.study.restapi.events;
+
+public enum EventExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+
+    private final String contentType;
+    private final String extension;
+
+    EventExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /*
+     * 대소문자를 구분하지 않는다. 모르는 형식이면 null을 반환한다.
+     */
+    public static EventExportFormat from(String value) {
+        for (EventExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+}
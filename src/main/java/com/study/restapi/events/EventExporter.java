@@ -0,0 +1,172 @@
+package com.study.restapi.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+ * 전체 이벤트를 페이지 없이 한 번에 내려준다.
+ * 커서(fetch size)로 조금씩 읽어서 바로 출력 스트림에 쓰고, fetch size만큼 쓸 때마다 영속성 컨텍스트를 비워서
+ * 이벤트 개수와 상관없이 힙 사용량이 일정하게 유지되도록 한다.
+ */
+@Component
+public class EventExporter {
+
+    private static final String[] COLUMNS = {"id", "name", "description", "beginEnrollmentDateTime",
+            "closeEnrollmentDateTime", "beginEventDateTime", "endEventDateTime", "location", "basePrice", "maxPrice",
+            "limitOfEnrollment", "offline", "free", "eventStatus"};
+
+    private final EventRepository eventRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public EventExporter(EventRepository eventRepository, EntityManager entityManager, ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${events.export.fetch-size:500}") int fetchSize) {
+        this.eventRepository = eventRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    public void export(EventExportFormat format, EventStatus eventStatus, LocalDateTime from, LocalDateTime to,
+                       OutputStream out) throws IOException {
+        try {
+            transactionTemplate.execute(status -> {
+                try (Stream<Event> events = eventRepository.streamAll(eventStatus, from, to, fetchSize)) {
+                    if (format == EventExportFormat.CSV) {
+                        writeCsv(events.iterator(), out);
+                    } else {
+                        writeNdjson(events.iterator(), out);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeNdjson(Iterator<Event> events, OutputStream out) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // 줄바꿈은 직접 쓰므로 루트 값 사이의 기본 구분자(공백)는 쓰지 않는다.
+        gen.setRootValueSeparator(null);
+        int count = 0;
+        while (events.hasNext()) {
+            Event event = events.next();
+            gen.writeStartObject();
+            gen.writeNumberField("id", event.getId());
+            gen.writeStringField("name", event.getName());
+            gen.writeStringField("description", event.getDescription());
+            gen.writeStringField("beginEnrollmentDateTime", format(event.getBeginEnrollmentDateTime()));
+            gen.writeStringField("closeEnrollmentDateTime", format(event.getCloseEnrollmentDateTime()));
+            gen.writeStringField("beginEventDateTime", format(event.getBeginEventDateTime()));
+            gen.writeStringField("endEventDateTime", format(event.getEndEventDateTime()));
+            gen.writeStringField("location", event.getLocation());
+            gen.writeNumberField("basePrice", event.getBasePrice());
+            gen.writeNumberField("maxPrice", event.getMaxPrice());
+            gen.writeNumberField("limitOfEnrollment", event.getLimitOfEnrollment());
+            gen.writeBooleanField("offline", event.isOffline());
+            gen.writeBooleanField("free", event.isFree());
+            gen.writeStringField("eventStatus", event.getEventStatus() == null ? null : event.getEventStatus().name());
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+
+            if (++count % fetchSize == 0) {
+                entityManager.clear();
+                gen.flush();
+            }
+        }
+        gen.close();
+    }
+
+    private void writeCsv(Iterator<Event> events, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+        int count = 0;
+        while (events.hasNext()) {
+            Event event = events.next();
+            writer.write(String.valueOf(event.getId()));
+            writer.write(',');
+            writeCsvValue(writer, event.getName());
+            writer.write(',');
+            writeCsvValue(writer, event.getDescription());
+            writer.write(',');
+            writeCsvValue(writer, format(event.getBeginEnrollmentDateTime()));
+            writer.write(',');
+            writeCsvValue(writer, format(event.getCloseEnrollmentDateTime()));
+            writer.write(',');
+            writeCsvValue(writer, format(event.getBeginEventDateTime()));
+            writer.write(',');
+            writeCsvValue(writer, format(event.getEndEventDateTime()));
+            writer.write(',');
+            writeCsvValue(writer, event.getLocation());
+            writer.write(',');
+            writer.write(String.valueOf(event.getBasePrice()));
+            writer.write(',');
+            writer.write(String.valueOf(event.getMaxPrice()));
+            writer.write(',');
+            writer.write(String.valueOf(event.getLimitOfEnrollment()));
+            writer.write(',');
+            writer.write(String.valueOf(event.isOffline()));
+            writer.write(',');
+            writer.write(String.valueOf(event.isFree()));
+            writer.write(',');
+            writeCsvValue(writer, event.getEventStatus() == null ? null : event.getEventStatus().name());
+            writer.write("\r\n");
+
+            if (++count % fetchSize == 0) {
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    // RFC 4180: 구분자, 따옴표, 줄바꿈이 들어있으면 따옴표로 감싸고 따옴표는 두 번 쓴다.
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private String format(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toString();
+    }
+
+}
@@ -0,0 +1,328 @@
+package com.study.restapi.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+ * 신청 시작일, 마감일이 되면 이벤트 상태를 바꾼다. (PUBLISHED -> BEGAN_ENROLLMENT -> CLOSED_ENROLLMENT)
+ * 앞으로 horizon 안에 있을 전환만 (eventStatus, 시각) 인덱스로 구간을 나눠 읽어서 시각 순서의 큐에 넣고,
+ * 가장 이른 전환 시각에 맞춰 깨어나서 그때 된 전환을 상태별로 모아 UPDATE 한다. 테이블 전체를 주기적으로 훑지 않는다.
+ * 시작할 때는 아래 경계 없이 읽으므로 꺼져 있던 동안 지난 전환도 바로 반영된다.
+ * 읽어온 뒤에 바뀐 시각이나 상태는 UPDATE 조건으로 걸러내므로, 여러 노드에서 같이 돌아도 한 번만 바뀐다.
+ */
+@Slf4j
+@Component
+public class EventLifecycle implements ApplicationRunner, DisposableBean {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+
+    enum Transition {
+
+        BEGIN_ENROLLMENT("beginEnrollmentDateTime", Event::getBeginEnrollmentDateTime,
+                EventStatus.BEGAN_ENROLLMENT, EventStatus.PUBLISHED),
+        // 신청 시작 전에 마감일이 되는 경우는 없지만(검증), 시작 전환이 늦었어도 바로 닫는다.
+        CLOSE_ENROLLMENT("closeEnrollmentDateTime", Event::getCloseEnrollmentDateTime,
+                EventStatus.CLOSED_ENROLLMENT, EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT);
+
+        private final String property;
+        private final Function<Event, LocalDateTime> time;
+        private final EventStatus to;
+        private final Set<EventStatus> from;
+
+        Transition(String property, Function<Event, LocalDateTime> time, EventStatus to, EventStatus... from) {
+            this.property = property;
+            this.time = time;
+            this.to = to;
+            this.from = Collections.unmodifiableSet(EnumSet.copyOf(Arrays.asList(from)));
+        }
+
+    }
+
+    private final EventRepository eventRepository;
+    private final EventResourceCache eventResourceCache;
+    private final EnrollmentAdmission enrollmentAdmission;
+    private final EventStats eventStats;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+    private final PriorityQueue<Due> queue = new PriorityQueue<>();
+    // 큐에 있는 (id, 시각, 전환). 수정할 때마다(write-behind는 flush마다) 같은 전환이 다시 들어오지 않게 한다.
+    private final Set<Due> queued = new HashSet<>();
+    // 이 시각까지의 전환은 큐에 있다(또는 읽는 중이다). null이면 아직 읽지 않았다.
+    private LocalDateTime loadedUntil;
+    private ScheduledFuture<?> next;
+    private LocalDateTime nextAt;
+
+    public EventLifecycle(EventRepository eventRepository, EventResourceCache eventResourceCache,
+                          EnrollmentAdmission enrollmentAdmission, EventStats eventStats,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${events.lifecycle.enabled:true}") boolean enabled,
+                          @Value("${events.lifecycle.horizon:10m}") Duration horizon,
+                          @Value("${events.lifecycle.batch-size:500}") int batchSize) {
+        this.eventRepository = eventRepository;
+        this.eventResourceCache = eventResourceCache;
+        this.enrollmentAdmission = enrollmentAdmission;
+        this.eventStats = eventStats;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            scheduler.execute(this::tick);
+        }
+    }
+
+    /*
+     * 이벤트를 저장한 뒤 부른다. 이미 읽어온 구간 안에 전환 시각이 있으면 큐에 넣는다. (이후 구간은 읽을 때 들어온다)
+     */
+    public void schedule(Event event) {
+        schedule(event, false);
+    }
+
+    /*
+     * 상태를 모를 때(write-behind flush). 상태는 UPDATE 조건으로만 확인한다.
+     */
+    void scheduleAnyStatus(Event event) {
+        schedule(event, true);
+    }
+
+    synchronized int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized void schedule(Event event, boolean anyStatus) {
+        if (!enabled || loadedUntil == null) {
+            return;
+        }
+        for (Transition transition : Transition.values()) {
+            LocalDateTime at = transition.time.apply(event);
+            if (at == null || at.isAfter(loadedUntil)
+                    || !(anyStatus || transition.from.contains(event.getEventStatus()))) {
+                continue;
+            }
+            if (enqueue(new Due(event.getId(), at, transition))) {
+                wakeUpAt(at);
+            }
+        }
+    }
+
+    private void tick() {
+        synchronized (this) {
+            next = null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            load(now);
+            apply(now);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply event status transitions. Retrying in {}.", RETRY_DELAY, e);
+            wakeUpAt(now.plus(RETRY_DELAY));
+            return;
+        }
+
+        synchronized (this) {
+            // 다음 구간은 지금 구간의 절반이 지나면 미리 읽는다.
+            LocalDateTime at = loadedUntil.minus(horizon.dividedBy(2));
+            if (!queue.isEmpty() && queue.peek().at.isBefore(at)) {
+                at = queue.peek().at;
+            }
+            wakeUpAt(at);
+        }
+    }
+
+    private void load(LocalDateTime now) {
+        LocalDateTime after;
+        LocalDateTime until = now.plus(horizon);
+        synchronized (this) {
+            after = loadedUntil;
+            if (after != null && after.isAfter(now.plus(horizon.dividedBy(2)))) {
+                return;
+            }
+            loadedUntil = until;
+        }
+
+        List<Due> loaded = new ArrayList<>();
+        try {
+            for (Transition transition : Transition.values()) {
+                for (Object[] row : eventRepository.findStatusTimes(transition.property, transition.from, after, until)) {
+                    loaded.add(new Due((Long) row[0], (LocalDateTime) row[1], transition));
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loadedUntil = after;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            loaded.forEach(this::enqueue);
+        }
+        log.debug("Loaded {} event status transitions until {}.", loaded.size(), until);
+    }
+
+    private void apply(LocalDateTime now) {
+        List<Due> polled = new ArrayList<>();
+        synchronized (this) {
+            while (!queue.isEmpty() && !queue.peek().at.isAfter(now)) {
+                Due due = queue.poll();
+                queued.remove(due);
+                polled.add(due);
+            }
+        }
+        if (polled.isEmpty()) {
+            return;
+        }
+
+        // 같은 시각에 시작과 마감이 모두 되었으면 시작을 먼저 반영한다. (EnumMap은 선언 순서로 돈다)
+        // 시각이 바뀌어서 같은 전환이 두 번 들어있을 수 있으므로 id는 한 번씩만 넣는다.
+        Map<Transition, Set<Long>> ids = new EnumMap<>(Transition.class);
+        polled.forEach(due -> ids.computeIfAbsent(due.transition, t -> new LinkedHashSet<>()).add(due.id));
+        Map<Transition, Map<EventStatus, Integer>> moved;
+        try {
+            moved = transactionTemplate.execute(status -> {
+                Map<Transition, Map<EventStatus, Integer>> counts = new EnumMap<>(Transition.class);
+                for (Map.Entry<Transition, Set<Long>> entry : ids.entrySet()) {
+                    Transition transition = entry.getKey();
+                    List<Long> batch = new ArrayList<>(entry.getValue());
+                    Map<EventStatus, Integer> count = counts.computeIfAbsent(transition,
+                            t -> new EnumMap<>(EventStatus.class));
+                    // 통계(EventStats)에서 어느 상태의 개수를 뺄지 알 수 있도록 이전 상태별로 나눠서 UPDATE 한다.
+                    for (EventStatus from : transition.from) {
+                        for (int i = 0; i < batch.size(); i += batchSize) {
+                            count.merge(from, eventRepository.updateStatus(
+                                    batch.subList(i, Math.min(i + batchSize, batch.size())),
+                                    Collections.singleton(from), transition.to, transition.property, now), Integer::sum);
+                        }
+                    }
+                }
+                return counts;
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                polled.forEach(this::enqueue);
+            }
+            throw e;
+        }
+
+        int updated = 0;
+        for (Map.Entry<Transition, Map<EventStatus, Integer>> entry : moved.entrySet()) {
+            for (Map.Entry<EventStatus, Integer> count : entry.getValue().entrySet()) {
+                eventStats.statusChanged(count.getKey(), entry.getKey().to, count.getValue());
+                updated += count.getValue();
+            }
+        }
+        Set<Long> evicted = new HashSet<>();
+        for (Due due : polled) {
+            if (evicted.add(due.id)) {
+                eventResourceCache.evict(due.id);
+                enrollmentAdmission.evict(due.id);
+            }
+        }
+        log.debug("Applied {} of {} due event status transitions.", updated, polled.size());
+    }
+
+    // 이미 큐에 있으면 false
+    private boolean enqueue(Due due) {
+        if (!queued.add(due)) {
+            return false;
+        }
+        queue.add(due);
+        return true;
+    }
+
+    /*
+     * 이미 더 이르게 깨어나도록 예약되어 있으면 그대로 둔다.
+     */
+    private synchronized void wakeUpAt(LocalDateTime at) {
+        if (scheduler.isShutdown() || (next != null && !nextAt.isAfter(at))) {
+            return;
+        }
+        if (next != null) {
+            next.cancel(false);
+        }
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), at).toMillis());
+        nextAt = at;
+        next = scheduler.schedule(this::tick, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static class Due implements Comparable<Due> {
+
+        private final Long id;
+        private final LocalDateTime at;
+        private final Transition transition;
+
+        Due(Long id, LocalDateTime at, Transition transition) {
+            this.id = id;
+            this.at = at;
+            this.transition = transition;
+        }
+
+        @Override
+        public int compareTo(Due other) {
+            int compared = at.compareTo(other.at);
+            return compared != 0 ? compared : transition.compareTo(other.transition);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Due)) {
+                return false;
+            }
+            Due other = (Due) o;
+            return id.equals(other.id) && at.equals(other.at) && transition == other.transition;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, at, transition);
+        }
+
+    }
+
+}
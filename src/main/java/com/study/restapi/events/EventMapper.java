@@ -0,0 +1,90 @@
+package com.study.restapi.events;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/*
+ * EventDto <-> Event 변환. ModelMapper와 달리 리플렉션이나 TypeMap 조회 없이 필드를 직접 복사한다.
+ * EventDto에 필드를 추가하면 여기에도 같이 추가해야 한다.
+ */
+@Component
+public class EventMapper {
+
+    public Event toEvent(EventDto eventDto) {
+        Event event = new Event();
+        updateEvent(eventDto, event);
+        return event;
+    }
+
+    public EventDto toEventDto(Event event) {
+        return EventDto.builder()
+                .name(event.getName())
+                .description(event.getDescription())
+                .beginEnrollmentDateTime(event.getBeginEnrollmentDateTime())
+                .closeEnrollmentDateTime(event.getCloseEnrollmentDateTime())
+                .beginEventDateTime(event.getBeginEventDateTime())
+                .endEventDateTime(event.getEndEventDateTime())
+                .location(event.getLocation())
+                .basePrice(event.getBasePrice())
+                .maxPrice(event.getMaxPrice())
+                .limitOfEnrollment(event.getLimitOfEnrollment())
+                .build();
+    }
+
+    public void updateEvent(EventDto eventDto, Event event) {
+        event.setName(eventDto.getName());
+        event.setDescription(eventDto.getDescription());
+        event.setBeginEnrollmentDateTime(eventDto.getBeginEnrollmentDateTime());
+        event.setCloseEnrollmentDateTime(eventDto.getCloseEnrollmentDateTime());
+        event.setBeginEventDateTime(eventDto.getBeginEventDateTime());
+        event.setEndEventDateTime(eventDto.getEndEventDateTime());
+        event.setLocation(eventDto.getLocation());
+        event.setBasePrice(eventDto.getBasePrice());
+        event.setMaxPrice(eventDto.getMaxPrice());
+        event.setLimitOfEnrollment(eventDto.getLimitOfEnrollment());
+    }
+
+    /*
+     * 부분 수정. properties에 들어있는 EventDto 필드만 복사한다.
+     */
+    public void updateEvent(EventDto eventDto, Event event, Set<String> properties) {
+        for (String property : properties) {
+            switch (property) {
+                case "name":
+                    event.setName(eventDto.getName());
+                    break;
+                case "description":
+                    event.setDescription(eventDto.getDescription());
+                    break;
+                case "beginEnrollmentDateTime":
+                    event.setBeginEnrollmentDateTime(eventDto.getBeginEnrollmentDateTime());
+                    break;
+                case "closeEnrollmentDateTime":
+                    event.setCloseEnrollmentDateTime(eventDto.getCloseEnrollmentDateTime());
+                    break;
+                case "beginEventDateTime":
+                    event.setBeginEventDateTime(eventDto.getBeginEventDateTime());
+                    break;
+                case "endEventDateTime":
+                    event.setEndEventDateTime(eventDto.getEndEventDateTime());
+                    break;
+                case "location":
+                    event.setLocation(eventDto.getLocation());
+                    break;
+                case "basePrice":
+                    event.setBasePrice(eventDto.getBasePrice());
+                    break;
+                case "maxPrice":
+                    event.setMaxPrice(eventDto.getMaxPrice());
+                    break;
+                case "limitOfEnrollment":
+                    event.setLimitOfEnrollment(eventDto.getLimitOfEnrollment());
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown property: " + property);
+            }
+        }
+    }
+
+}
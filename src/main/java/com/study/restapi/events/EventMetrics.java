@@ -0,0 +1,72 @@
+package com.study.restapi.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * 이벤트 API의 처리 단계별 소요 시간(events.phase)과 검증 실패 응답 수(events.validation.failures).
+ * 요청 전체 시간과 요청 수는 actuator의 http.server.requests가 엔드포인트(uri, method) 단위로 기록한다.
+ */
+@Component
+public class EventMetrics {
+
+    public static final String CREATE = "createEvent";
+    public static final String QUERY = "queryEvents";
+    public static final String GET = "getEvent";
+    public static final String MODIFY = "modifyEvent";
+    public static final String PATCH = "patchEvent";
+    public static final String SEARCH = "searchEvents";
+    public static final String ENROLL = "enrollEvent";
+    public static final String PUBLISH = "publishEvent";
+
+    public enum Phase {
+        VALIDATION, MAPPING, REPOSITORY, ASSEMBLY, SERIALIZATION;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> validationFailures = new ConcurrentHashMap<>();
+
+    public EventMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /*
+     * start(또는 이전 단계)부터 지금까지를 phase 시간으로 기록하고, 다음 단계의 시작 시각을 돌려준다.
+     */
+    public long record(String operation, Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        timer(operation, phase).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void validationFailed(String operation) {
+        validationFailures.computeIfAbsent(operation, op -> Counter.builder("events.validation.failures")
+                .description("400 Bad Request 응답 수")
+                .tag("operation", op)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    private Timer timer(String operation, Phase phase) {
+        return timers.computeIfAbsent(operation + ":" + phase.tag, key -> Timer.builder("events.phase")
+                .description("이벤트 API 처리 단계별 소요 시간")
+                .tag("operation", operation)
+                .tag("phase", phase.tag)
+                .register(meterRegistry));
+    }
+
+}
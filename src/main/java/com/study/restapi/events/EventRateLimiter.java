@@ -0,0 +1,221 @@
+package com.study.restapi.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.study.restapi.accounts.AccountRole;
+import com.study.restapi.accounts.AccountUser;
+import com.study.restapi.common.AccountService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 이벤트 쓰기 요청(GET, HEAD, OPTIONS 외)을 계정별, 엔드포인트별 토큰 버킷으로 제한한다. (노드 로컬)
+ * 한도는 AccountRole 마다 events.rate-limit.<role>.per-second(채워지는 속도), burst(버킷 크기)로 정하고,
+ * 역할이 여러 개면 가장 넉넉한 한도를 쓴다. 인증되지 않은 요청은 클라이언트 주소별로 anonymous 한도를 쓴다.
+ * 한도를 넘으면 핸들러를 실행하지 않고 429와 다음 토큰이 채워질 때까지의 초(Retry-After)로 응답한다.
+ */
+@Component
+public class EventRateLimiter implements HandlerInterceptor, MeterBinder {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final AccountService accountService;
+    private final boolean enabled;
+    private final Map<AccountRole, Quota> quotas = new EnumMap<>(AccountRole.class);
+    private final Quota anonymous;
+    private final Cache<String, Bucket> buckets;
+    private final Map<String, Counter> rejected = new ConcurrentHashMap<>();
+    private MeterRegistry meterRegistry;
+
+    public EventRateLimiter(AccountService accountService, Environment environment,
+                            @Value("${events.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${events.rate-limit.maximum-size:100000}") long maximumSize) {
+        this.accountService = accountService;
+        this.enabled = enabled;
+        this.anonymous = quota(environment, "anonymous", 1, 5);
+        long refill = anonymous.tolerance;
+        for (AccountRole role : AccountRole.values()) {
+            Quota quota = quota(environment, role.name().toLowerCase(Locale.ROOT), 5, 20);
+            quotas.put(role, quota);
+            refill = Math.max(refill, quota.tolerance);
+        }
+        // 가장 큰 버킷이 다 채워질 만큼 쓰이지 않은 버킷은 새로 만든 것과 같으므로 지운다.
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(refill, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 비동기 요청은 결과를 내보낼 때 한 번 더 디스패치되므로 처음 디스패치에서만 센다.
+        if (!enabled || request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod)
+                || isSafe(request.getMethod())) {
+            return true;
+        }
+
+        String endpoint = ((HandlerMethod) handler).getMethod().getName();
+        AccountUser user = accountUser();
+        Quota quota = user == null ? anonymous : quota(user);
+        String client = user == null ? "anonymous:" + request.getRemoteAddr() : "account:" + user.getAccountId();
+
+        long now = System.nanoTime();
+        long wait = buckets.get(client + ":" + endpoint, key -> new Bucket(now)).tryAcquire(quota, now);
+        if (wait == 0) {
+            return true;
+        }
+
+        countRejected(endpoint);
+        long second = TimeUnit.SECONDS.toNanos(1);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((wait + second - 1) / second));
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+    }
+
+    /*
+     * 토큰(access token)에는 username만 있을 수 있으므로 AccountService로 AccountUser를 찾는다. (AccountUserCache에 캐싱된다)
+     */
+    private AccountUser accountUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AccountUser) {
+            return (AccountUser) principal;
+        }
+        String username = principal instanceof UserDetails ? ((UserDetails) principal).getUsername()
+                : principal instanceof String ? (String) principal : null;
+        if (username == null) {
+            return null;
+        }
+        try {
+            UserDetails user = accountService.loadUserByUsername(username);
+            return user instanceof AccountUser ? (AccountUser) user : null;
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    private Quota quota(AccountUser user) {
+        Quota quota = null;
+        for (GrantedAuthority authority : user.getAuthorities()) {
+            String name = authority.getAuthority();
+            Quota candidate = name.startsWith(ROLE_PREFIX) ? quota(name.substring(ROLE_PREFIX.length())) : null;
+            if (candidate != null && (quota == null || candidate.interval < quota.interval)) {
+                quota = candidate;
+            }
+        }
+        return quota == null ? anonymous : quota;
+    }
+
+    private Quota quota(String role) {
+        try {
+            return quotas.get(AccountRole.valueOf(role));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void countRejected(String endpoint) {
+        if (meterRegistry == null) {
+            return;
+        }
+        rejected.computeIfAbsent(endpoint, op -> Counter.builder("events.rate-limit.rejected")
+                .description("한도를 넘어서 429로 응답한 요청 수")
+                .tag("operation", op)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    private static boolean isSafe(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private static Quota quota(Environment environment, String name, double perSecond, int burst) {
+        String prefix = "events.rate-limit." + name + ".";
+        return new Quota(environment.getProperty(prefix + "per-second", Double.class, perSecond),
+                environment.getProperty(prefix + "burst", Integer.class, burst));
+    }
+
+    private static class Quota {
+
+        // 토큰 하나가 채워지는 시간과 버킷이 빈 상태에서 가득 찰 때까지의 시간 (ns)
+        private final long interval;
+        private final long tolerance;
+
+        Quota(double perSecond, int burst) {
+            if (perSecond <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("events.rate-limit per-second and burst must be positive.");
+            }
+            this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+            this.tolerance = interval * burst;
+        }
+
+    }
+
+    /*
+     * 토큰 수 대신 버킷이 다시 가득 차는 시각 하나만 들고 있다. (GCRA)
+     * 토큰을 쓰면 그 시각이 interval 만큼 늦어지고, 지금부터 tolerance 보다 멀어지면 토큰이 없는 것이다.
+     * 토큰 버킷과 같은 결과를 CAS 한 번으로 얻으므로 잠그지 않는다.
+     */
+    private static class Bucket {
+
+        private final AtomicLong next;
+
+        Bucket(long now) {
+            this.next = new AtomicLong(now);
+        }
+
+        /*
+         * 토큰을 하나 쓸 수 있으면 쓰고 0을, 아니면 쓸 수 있을 때까지 남은 시간(ns)을 돌려준다.
+         */
+        long tryAcquire(Quota quota, long now) {
+            while (true) {
+                long current = next.get();
+                long updated = Math.max(current, now) + quota.interval;
+                long wait = updated - now - quota.tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (next.compareAndSet(current, updated)) {
+                    return 0;
+                }
+            }
+        }
+
+    }
+
+}
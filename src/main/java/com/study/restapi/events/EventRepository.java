@@ -1,6 +1,25 @@
 package com.study.restapi.events;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>, EventRepositoryCustom {
+
+    // account는 LAZY라서 필요할 때만 이 메서드로 한 번에 join해서 가져온다.
+    @EntityGraph(attributePaths = "account")
+    Optional<Event> findWithAccountById(Long id);
+
+    // 조건부 요청(If-None-Match)은 엔티티 전체 대신 버전만 조회해서 확인한다.
+    @Query("select e.version from Event e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // 남은 자리 수. 이벤트가 없으면 비어있다.
+    @Query("select e.limitOfEnrollment - e.enrolled from Event e where e.id = :id")
+    Optional<Integer> findRemainingById(@Param("id") Long id);
 
-public interface EventRepository extends JpaRepository<Event, Long> {
 }
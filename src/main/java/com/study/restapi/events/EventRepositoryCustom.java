@@ -0,0 +1,81 @@
+package com.study.restapi.events;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface EventRepositoryCustom {
+
+    /*
+     * OFFSET 없이 커서 이후(backward면 이전)의 이벤트를 limit 개수만큼 조회한다.
+     * count 쿼리는 실행하지 않는다. spec이 있으면 조건으로 같이 건다.
+     */
+    List<Event> findBySeek(EventCursor cursor, Specification<Event> spec, boolean backward, int limit);
+
+    /*
+     * 목록 조회용. 엔티티 대신 EventSummary로 한 페이지를 조회한다. 개수는 세지 않는다.
+     * Specification은 Spring Data의 프로젝션과 같이 쓸 수 없어서 직접 만든다.
+     */
+    List<EventSummary> findSummaries(Specification<Event> spec, Pageable pageable);
+
+    /*
+     * count(spec)과 같지만 쿼리 캐시를 쓴다. (Spring Data JPA 2.2는 count 쿼리에 @QueryHints를 적용하지 않는다)
+     */
+    long countEvents(Specification<Event> spec);
+
+    /*
+     * 전체 이벤트를 id 순서로 커서를 열어서 조금씩 읽는다. 조건은 null이면 적용하지 않는다.
+     * 트랜잭션 안에서 사용하고 다 읽으면 닫아야 한다.
+     */
+    Stream<Event> streamAll(EventStatus eventStatus, LocalDateTime from, LocalDateTime to, int fetchSize);
+
+    /*
+     * 엔티티를 읽지 않고 수정할 수 있는 필드와 버전을 한 번에 쓴다. (EventWriteBehind의 flush용)
+     * 버전이 expectedVersion일 때만 바뀌고, 바뀐 행 수를 돌려준다. version은 event의 값으로 덮어쓴다.
+     * 트랜잭션 안에서 사용한다.
+     */
+    int updateVersioned(Event event, long expectedVersion);
+
+    /*
+     * 엔티티를 읽어서 고치지 않고 DB에서 조건을 확인하면서 한 번에 증가시킨다. 자리가 있으면 1, 없으면 0을 돌려준다.
+     * 캐시된 표현과 ETag가 바뀌도록 version도 같이 올린다.
+     */
+    int enroll(Long id, EventStatus status);
+
+    /*
+     * 초안(DRAFT)인 이벤트만 PUBLISHED로 바꾸고 버전을 올린다. 바뀌면 1, 아니면 0을 돌려준다.
+     */
+    int publish(Long id);
+
+    /*
+     * 2차 캐시를 거치지 않고 DB에서 읽어서 영속성 컨텍스트에서 뗀 이벤트를 돌려준다. (EventWriteBehind의 flush용)
+     */
+    Optional<Event> findUncached(Long id);
+
+    /*
+     * 상태가 statuses 중 하나이고 property 시각이 (after, until] 안에 있는 이벤트의 [id, 시각]을 조회한다.
+     * after가 null이면 아래 경계 없이 until까지 모두 조회한다. ((eventStatus, 시각) 인덱스를 탄다)
+     */
+    List<Object[]> findStatusTimes(String property, Collection<EventStatus> statuses,
+                                   LocalDateTime after, LocalDateTime until);
+
+    /*
+     * ids 중 상태가 from 중 하나이고 property 시각이 now 이전인 이벤트만 to 상태로 바꾸고 버전을 올린다.
+     * 읽어온 뒤에 시각이나 상태가 바뀐 이벤트는 조건에서 걸러진다. 바뀐 행 수를 돌려준다. 트랜잭션 안에서 사용한다.
+     */
+    int updateStatus(Collection<Long> ids, Collection<EventStatus> from, EventStatus to,
+                     String property, LocalDateTime now);
+
+    /*
+     * (eventStatus, free, offline) 별로 [eventStatus, free, offline, 개수, basePrice 합, maxPrice 합, 가격 구간별 개수...]를 조회한다.
+     * 가격 구간은 basePrice 기준으로 priceBounds[i-1] < basePrice <= priceBounds[i] 이고, 마지막 구간은 마지막 경계보다 큰 값이다.
+     * (EventStats의 대사용. 테이블 전체를 한 번 훑는다)
+     */
+    List<Object[]> aggregateStats(int[] priceBounds);
+
+}
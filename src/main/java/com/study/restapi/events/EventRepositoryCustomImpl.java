@@ -0,0 +1,331 @@
+package com.study.restapi.events;
+
+import com.study.restapi.common.JpaCacheConfig;
+import org.hibernate.Cache;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    // 어떤 엔티티의 테이블도 아니므로 Hibernate가 2차 캐시 영역을 비우지 않는다.
+    private static final String BULK_UPDATE_SPACE = "event_bulk_update";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<Event> findBySeek(EventCursor cursor, Specification<Event> spec, boolean backward, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+
+        // 이전 페이지는 정렬 방향을 뒤집어서 조회하고, 호출하는 쪽에서 다시 뒤집는다.
+        boolean ascending = cursor.getDirection().isAscending() != backward;
+        Expression<Comparable> key = root.get(cursor.getProperty());
+        Expression<Long> id = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate condition = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (condition != null) {
+            predicates.add(condition);
+        }
+
+        if (!cursor.isFirst()) {
+            Predicate afterId = ascending ? cb.greaterThan(id, cursor.getId()) : cb.lessThan(id, cursor.getId());
+            predicates.add(cursor.isIdOnly() ? afterId : seek(cb, key, cursor.getValue(), afterId, ascending));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        if (cursor.isIdOnly()) {
+            query.orderBy(order(cb, id, ascending));
+        } else {
+            query.orderBy(order(cb, key, ascending), order(cb, id, ascending));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /*
+     * (정렬 키, id)가 마지막 행보다 뒤인 조건. MySQL, H2는 NULL을 가장 작은 값으로 정렬하므로
+     * 오름차순이면 NULL인 행이 맨 앞에, 내림차순이면 맨 뒤에 온다. 비교 연산은 NULL을 걸러내므로 따로 건다.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seek(CriteriaBuilder cb, Expression<Comparable> key, Comparable value,
+                           Predicate afterId, boolean ascending) {
+        if (value == null) {
+            Predicate sameKey = cb.and(cb.isNull(key), afterId);
+            return ascending ? cb.or(sameKey, cb.isNotNull(key)) : sameKey;
+        }
+        Predicate afterKey = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+        Predicate sameKey = cb.and(cb.equal(key, value), afterId);
+        return ascending ? cb.or(afterKey, sameKey) : cb.or(afterKey, sameKey, cb.isNull(key));
+    }
+
+    /*
+     * 쿼리 캐시를 쓴다. Event 테이블이 바뀌면 (참가 신청의 UPDATE 포함) 캐시된 결과는 모두 무효가 된다.
+     */
+    @Override
+    public List<EventSummary> findSummaries(Specification<Event> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventSummary> query = cb.createQuery(EventSummary.class);
+        Root<Event> root = query.from(Event.class);
+        query.select(cb.construct(EventSummary.class,
+                root.get("id"), root.get("version"), root.get("name"), root.get("description"),
+                root.get("beginEnrollmentDateTime"), root.get("closeEnrollmentDateTime"),
+                root.get("beginEventDateTime"), root.get("endEventDateTime"), root.get("location"),
+                root.get("basePrice"), root.get("maxPrice"), root.get("limitOfEnrollment"), root.get("enrolled"),
+                root.get("offline"), root.get("free"), root.get("eventStatus")));
+
+        Predicate condition = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (condition != null) {
+            query.where(condition);
+        }
+        query.orderBy(toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<EventSummary> typedQuery = entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_CACHEABLE, true)
+                .setHint(QueryHints.HINT_CACHE_REGION, JpaCacheConfig.EVENT_QUERY_REGION);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public long countEvents(Specification<Event> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Event> root = query.from(Event.class);
+        query.select(cb.count(root));
+
+        Predicate condition = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (condition != null) {
+            query.where(condition);
+        }
+
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_CACHEABLE, true)
+                .setHint(QueryHints.HINT_CACHE_REGION, JpaCacheConfig.EVENT_QUERY_REGION)
+                .getSingleResult();
+    }
+
+    @Override
+    public Stream<Event> streamAll(EventStatus eventStatus, LocalDateTime from, LocalDateTime to, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (eventStatus != null) {
+            predicates.add(cb.equal(root.get("eventStatus"), eventStatus));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("beginEventDateTime"), from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(root.get("beginEventDateTime"), to));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public int updateVersioned(Event event, long expectedVersion) {
+        Query update = entityManager.createNativeQuery("update event set " +
+                "name = :name, description = :description, " +
+                "begin_enrollment_date_time = :beginEnrollmentDateTime, " +
+                "close_enrollment_date_time = :closeEnrollmentDateTime, " +
+                "begin_event_date_time = :beginEventDateTime, end_event_date_time = :endEventDateTime, " +
+                "location = :location, base_price = :basePrice, max_price = :maxPrice, " +
+                "limit_of_enrollment = :limitOfEnrollment, offline = :offline, free = :free, " +
+                "version = :version " +
+                "where id = :id and version = :expectedVersion")
+                .setParameter("name", event.getName())
+                .setParameter("description", event.getDescription())
+                .setParameter("beginEnrollmentDateTime", event.getBeginEnrollmentDateTime())
+                .setParameter("closeEnrollmentDateTime", event.getCloseEnrollmentDateTime())
+                .setParameter("beginEventDateTime", event.getBeginEventDateTime())
+                .setParameter("endEventDateTime", event.getEndEventDateTime())
+                .setParameter("location", event.getLocation())
+                .setParameter("basePrice", event.getBasePrice())
+                .setParameter("maxPrice", event.getMaxPrice())
+                .setParameter("limitOfEnrollment", event.getLimitOfEnrollment())
+                .setParameter("offline", event.isOffline())
+                .setParameter("free", event.isFree())
+                .setParameter("version", event.getVersion())
+                .setParameter("id", event.getId())
+                .setParameter("expectedVersion", expectedVersion);
+        return executeUpdate(update, Collections.singleton(event.getId()));
+    }
+
+    @Override
+    @Transactional
+    public int enroll(Long id, EventStatus status) {
+        Query update = entityManager.createNativeQuery("update event " +
+                "set enrolled = enrolled + 1, version = version + 1 " +
+                "where id = :id and event_status = :status and enrolled < limit_of_enrollment")
+                .setParameter("id", id)
+                .setParameter("status", status.name());
+        return executeUpdate(update, Collections.singleton(id));
+    }
+
+    @Override
+    @Transactional
+    public int publish(Long id) {
+        Query update = entityManager.createNativeQuery("update event " +
+                "set event_status = :to, version = version + 1 " +
+                "where id = :id and event_status = :from")
+                .setParameter("id", id)
+                .setParameter("to", EventStatus.PUBLISHED.name())
+                .setParameter("from", EventStatus.DRAFT.name());
+        return executeUpdate(update, Collections.singleton(id));
+    }
+
+    @Override
+    public Optional<Event> findUncached(Long id) {
+        Event event = entityManager.find(Event.class, id,
+                Collections.singletonMap(AvailableSettings.JPA_SHARED_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS));
+        if (event != null) {
+            entityManager.detach(event);
+        }
+        return Optional.ofNullable(event);
+    }
+
+    @Override
+    public List<Object[]> findStatusTimes(String property, Collection<EventStatus> statuses,
+                                          LocalDateTime after, LocalDateTime until) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Event> root = query.from(Event.class);
+        Expression<LocalDateTime> time = root.get(property);
+        query.multiselect(root.get("id"), time);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(root.get("eventStatus").in(statuses));
+        if (after != null) {
+            predicates.add(cb.greaterThan(time, after));
+        }
+        predicates.add(cb.lessThanOrEqualTo(time, until));
+        query.where(predicates.toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> ids, Collection<EventStatus> from, EventStatus to,
+                            String property, LocalDateTime now) {
+        List<String> statuses = new ArrayList<>(from.size());
+        from.forEach(status -> statuses.add(status.name()));
+        String time = persister().getPropertyColumnNames(property)[0];
+        Query update = entityManager.createNativeQuery("update event " +
+                "set event_status = :to, version = version + 1 " +
+                "where id in (:ids) and event_status in (:from) and " + time + " <= :now")
+                .setParameter("to", to.name())
+                .setParameter("ids", ids)
+                .setParameter("from", statuses)
+                .setParameter("now", now);
+        return executeUpdate(update, ids);
+    }
+
+    @Override
+    public List<Object[]> aggregateStats(int[] priceBounds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Event> root = query.from(Event.class);
+        Path<EventStatus> eventStatus = root.get("eventStatus");
+        Path<Boolean> free = root.get("free");
+        Path<Boolean> offline = root.get("offline");
+        Path<Integer> basePrice = root.get("basePrice");
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(eventStatus);
+        selections.add(free);
+        selections.add(offline);
+        selections.add(cb.count(root));
+        selections.add(cb.sumAsLong(basePrice));
+        selections.add(cb.sumAsLong(root.get("maxPrice")));
+        for (int i = 0; i <= priceBounds.length; i++) {
+            Predicate bucket = i == priceBounds.length
+                    ? cb.greaterThan(basePrice, priceBounds[i - 1])
+                    : cb.lessThanOrEqualTo(basePrice, priceBounds[i]);
+            if (i > 0 && i < priceBounds.length) {
+                bucket = cb.and(cb.greaterThan(basePrice, priceBounds[i - 1]), bucket);
+            }
+            selections.add(cb.sum(cb.<Long>selectCase().when(bucket, 1L).otherwise(0L)));
+        }
+        query.multiselect(selections);
+        query.groupBy(eventStatus, free, offline);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /*
+     * JPQL 벌크 UPDATE는 Event의 2차 캐시 영역 전체를 비우므로, 엔티티 테이블이 아닌 query space로 동기화한 네이티브 UPDATE를 쓰고
+     * 커밋한 뒤에 바꾼 id만 2차 캐시에서 지운다. Event 테이블을 읽는 쿼리 캐시는 Hibernate의 벌크 UPDATE와 같은 방식으로 무효화한다.
+     * (실행할 때 미리 무효화하고 커밋한 뒤에 다시 무효화해서 그 사이에 읽은 결과가 캐싱되지 않게 한다)
+     */
+    private int executeUpdate(Query update, Collection<Long> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        TimestampsCache timestampsCache = session.getFactory().getCache().getTimestampsCache();
+        String[] tables = (String[]) persister().getQuerySpaces();
+
+        update.unwrap(NativeQuery.class).addSynchronizedQuerySpace(BULK_UPDATE_SPACE);
+        timestampsCache.preInvalidate(tables, session);
+        int updated = update.executeUpdate();
+        session.getActionQueue().registerProcess((success, completed) -> {
+            timestampsCache.invalidate(tables, completed);
+            Cache cache = completed.getFactory().getCache();
+            ids.forEach(id -> cache.evictEntityData(Event.class, id));
+        });
+        return updated;
+    }
+
+    private AbstractEntityPersister persister() {
+        return (AbstractEntityPersister) entityManager.unwrap(SessionImplementor.class).getFactory()
+                .getMetamodel().entityPersister(Event.class);
+    }
+
+    private Order order(CriteriaBuilder cb, Expression<?> expression, boolean ascending) {
+        return ascending ? cb.asc(expression) : cb.desc(expression);
+    }
+
+}
@@ -1,10 +1,9 @@
 package com.study.restapi.events;
 
+import com.study.restapi.common.HalLinks;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 public class EventResource extends EntityModel<Event> {
 
     /*
@@ -12,7 +11,7 @@ public class EventResource extends EntityModel<Event> {
      */
     public EventResource(Event event, Link... links) {
         super(event,  links);
-        add(linkTo(EventController.class).slash(event.getId()).withSelfRel());
+        add(HalLinks.event(event.getId(), "self"));
     }
 
 }
@@ -0,0 +1,118 @@
+package com.study.restapi.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import com.study.restapi.common.HalLinks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/*
+ * 조립이 끝난 EventResource를 id 단위로 캐싱한다. (노드 로컬 캐시)
+ * 링크가 요청 호스트 기준의 절대 경로이므로 캐싱할 때의 base URI가 현재 요청과 다르면 다시 만든다.
+ * 직렬화한 본문(RenderedEvent)도 같은 항목에 처음 요청될 때 만들어 두므로, evict하면 둘 다 지워진다.
+ */
+@Component
+public class EventResourceCache implements MeterBinder {
+
+    private final Cache<Long, CachedResource> cache;
+    private final EventResourceRenderer renderer;
+
+    public EventResourceCache(EventResourceRenderer renderer,
+                              @Value("${events.cache.maximum-size:10000}") long maximumSize,
+                              @Value("${events.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.renderer = renderer;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /*
+     * 캐시에 없으면 loader로 만들어서 넣는다. loader가 null을 반환하면(404) 캐싱하지 않는다.
+     */
+    public EventResource get(Long id, Function<Long, EventResource> loader) {
+        CachedResource cached = getCached(id, loader);
+        return cached == null ? null : cached.resource;
+    }
+
+    /*
+     * get()과 같지만 직렬화가 끝난 본문을 준다. 항목마다 처음 한 번만 직렬화한다.
+     */
+    RenderedEvent getRendered(Long id, Function<Long, EventResource> loader) {
+        CachedResource cached = getCached(id, loader);
+        if (cached == null) {
+            return null;
+        }
+        RenderedEvent rendered = cached.rendered;
+        if (rendered == null) {
+            // 동시에 여러 번 만들어져도 결과가 같으므로 잠그지 않는다.
+            rendered = renderer.render(cached.resource);
+            cached.rendered = rendered;
+        }
+        return rendered;
+    }
+
+    public EventResource getIfPresent(Long id) {
+        CachedResource cached = cache.getIfPresent(id);
+        return cached == null ? null : cached.resource;
+    }
+
+    /*
+     * 이미 만들어둔 표현으로 바꿔 넣는다. (write-behind 수정은 DB에서 다시 읽지 않는다)
+     */
+    public void put(Long id, EventResource resource) {
+        cache.put(id, new CachedResource(HalLinks.baseUri(), resource));
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "eventResources");
+    }
+
+    private CachedResource getCached(Long id, Function<Long, EventResource> loader) {
+        String baseUri = HalLinks.baseUri();
+        CachedResource cached = cache.get(id, key -> load(key, baseUri, loader));
+        if (cached != null && !cached.baseUri.equals(baseUri)) {
+            cached = load(id, baseUri, loader);
+            if (cached != null) {
+                cache.put(id, cached);
+            }
+        }
+        return cached;
+    }
+
+    private CachedResource load(Long id, String baseUri, Function<Long, EventResource> loader) {
+        EventResource resource = loader.apply(id);
+        return resource == null ? null : new CachedResource(baseUri, resource);
+    }
+
+    private static class CachedResource {
+
+        private final String baseUri;
+        private final EventResource resource;
+        private volatile RenderedEvent rendered;
+
+        CachedResource(String baseUri, EventResource resource) {
+            this.baseUri = baseUri;
+            this.resource = resource;
+        }
+
+    }
+
+}
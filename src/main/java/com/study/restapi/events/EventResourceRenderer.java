@@ -0,0 +1,92 @@
+package com.study.restapi.events;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * EventResource를 HAL JSON 바이트로 미리 직렬화한다.
+ * 응답할 때와 같은 결과가 나오도록 MVC가 쓰는 메시지 컨버터(HAL)를 그대로 빌려서 쓴다.
+ */
+@Component
+public class EventResourceRenderer {
+
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+    private final boolean gzip;
+    private volatile HttpMessageConverter<Object> converter;
+
+    public EventResourceRenderer(ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter,
+                                 @Value("${events.cache.gzip:true}") boolean gzip) {
+        this.handlerAdapter = handlerAdapter;
+        this.gzip = gzip;
+    }
+
+    RenderedEvent render(EventResource resource) {
+        try {
+            BufferedOutputMessage message = new BufferedOutputMessage();
+            converter().write(resource, MediaTypes.HAL_JSON, message);
+            byte[] body = message.body.toByteArray();
+            MediaType contentType = message.headers.getContentType();
+            return new RenderedEvent(resource.getContent().getId(), resource.getContent().getVersion(),
+                    contentType == null ? MediaTypes.HAL_JSON : contentType, body, gzip ? gzip(body) : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> converter() {
+        HttpMessageConverter<Object> found = converter;
+        if (found == null) {
+            for (HttpMessageConverter<?> candidate : handlerAdapter.getObject().getMessageConverters()) {
+                if (candidate.canWrite(EventResource.class, MediaTypes.HAL_JSON)) {
+                    found = (HttpMessageConverter<Object>) candidate;
+                    break;
+                }
+            }
+            if (found == null) {
+                throw new IllegalStateException("no converter for " + MediaTypes.HAL_JSON);
+            }
+            converter = found;
+        }
+        return found;
+    }
+
+    private byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.study.restapi.events;
+
+import org.springframework.validation.Errors;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/*
+ * EventValidator의 규칙 테이블 한 줄.
+ * 통과 조건(valid)과 실패했을 때 남길 오류(field, code, defaultMessage)로 이루어진다.
+ * field가 없으면 global error로 남는다.
+ *
+ * 필드 규칙(fieldRule)은 값 하나만 보고, 교차 규칙은 필드 규칙을 모두 통과한 뒤에만 검사하므로 null을 신경쓰지 않아도 된다.
+ * 교차 규칙을 더 추가하려면 EventRule을 빈으로 등록하면 된다.
+ *
+ * properties는 규칙이 읽는 필드로, 부분 수정(PATCH)에서 어떤 규칙을 다시 검사할지 고를 때 쓴다.
+ * 필드 규칙은 자기 필드, 교차 규칙은 dependsOn으로 정한다. 정하지 않은 교차 규칙은 항상 검사한다.
+ */
+public final class EventRule {
+
+    private final String field;
+    private final String code;
+    private final String defaultMessage;
+    private final Predicate<EventDto> valid;
+    private final boolean fieldRule;
+    private final Set<String> properties;
+
+    private EventRule(String field, String code, String defaultMessage, Predicate<EventDto> valid, boolean fieldRule,
+                      Set<String> properties) {
+        this.field = field;
+        this.code = code;
+        this.defaultMessage = defaultMessage;
+        this.valid = valid;
+        this.fieldRule = fieldRule;
+        this.properties = properties;
+    }
+
+    private EventRule(String field, String code, String defaultMessage, Predicate<EventDto> valid, boolean fieldRule) {
+        this(field, code, defaultMessage, valid, fieldRule,
+                fieldRule ? Collections.singleton(field) : Collections.emptySet());
+    }
+
+    /*
+     * Bean Validation(@NotEmpty, @NotNull, @Min, @Size)과 같은 code와 메시지를 남긴다.
+     */
+    static EventRule notEmpty(String field, Function<EventDto, String> getter) {
+        return new EventRule(field, "NotEmpty", "must not be empty", e -> {
+            String value = getter.apply(e);
+            return value != null && !value.isEmpty();
+        }, true);
+    }
+
+    static EventRule notNull(String field, Function<EventDto, ?> getter) {
+        return new EventRule(field, "NotNull", "must not be null", e -> getter.apply(e) != null, true);
+    }
+
+    static EventRule min(String field, ToIntFunction<EventDto> getter, int min) {
+        return new EventRule(field, "Min", "must be greater than or equal to " + min,
+                e -> getter.applyAsInt(e) >= min, true);
+    }
+
+    // 컬럼 길이를 넘는 값은 저장할 때에야 실패하므로(write-behind는 응답한 뒤) 미리 막는다. null은 통과한다.
+    static EventRule size(String field, Function<EventDto, String> getter, int max) {
+        return new EventRule(field, "Size", "size must be between 0 and " + max, e -> {
+            String value = getter.apply(e);
+            return value == null || value.length() <= max;
+        }, true);
+    }
+
+    public static EventRule field(String field, String code, String defaultMessage, Predicate<EventDto> valid) {
+        return new EventRule(field, code, defaultMessage, valid, false);
+    }
+
+    public static EventRule global(String code, String defaultMessage, Predicate<EventDto> valid) {
+        return new EventRule(null, code, defaultMessage, valid, false);
+    }
+
+    public EventRule dependsOn(String... properties) {
+        return new EventRule(field, code, defaultMessage, valid, fieldRule,
+                Collections.unmodifiableSet(new HashSet<>(Arrays.asList(properties))));
+    }
+
+    boolean isFieldRule() {
+        return fieldRule;
+    }
+
+    /*
+     * changed에 이 규칙이 읽는 필드가 하나라도 있으면 true.
+     */
+    boolean dependsOnAny(Set<String> changed) {
+        if (properties.isEmpty()) {
+            return true;
+        }
+        for (String property : properties) {
+            if (changed.contains(property)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean test(EventDto eventDto) {
+        return valid.test(eventDto);
+    }
+
+    void reject(Errors errors) {
+        /**
+         * rejectValue를 사용하면 field error로 들어가고
+         * reject를 사용하면 global error로 들어간다.
+         */
+        if (field == null) {
+            errors.reject(code, defaultMessage);
+        } else {
+            errors.rejectValue(field, code, defaultMessage);
+        }
+    }
+
+}
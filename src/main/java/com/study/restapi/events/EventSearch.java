@@ -0,0 +1,100 @@
+package com.study.restapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 이벤트 목록 조회 조건. 값이 있는 조건만 where 절에 붙인다.
+ * 가격은 basePrice, 날짜는 각 기간의 시작일 기준으로 [from, to) 범위를 찾는다.
+ * 조건 조합마다 사용할 인덱스는 Event의 @Table에 선언되어 있다.
+ */
+@Getter @Setter
+public class EventSearch implements Specification<Event> {
+
+    private EventStatus eventStatus;
+    private Boolean free;
+    private Boolean offline;
+    private String location;
+    private Integer priceFrom;
+    private Integer priceTo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime enrollmentFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime enrollmentTo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime eventFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime eventTo;
+
+    @Override
+    public Predicate toPredicate(Root<Event> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (eventStatus != null) {
+            predicates.add(cb.equal(root.get("eventStatus"), eventStatus));
+        }
+        if (free != null) {
+            predicates.add(cb.equal(root.get("free"), free));
+        }
+        if (offline != null) {
+            predicates.add(cb.equal(root.get("offline"), offline));
+        }
+        if (location != null && !location.isEmpty()) {
+            predicates.add(cb.equal(root.get("location"), location));
+        }
+        if (priceFrom != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("basePrice"), priceFrom));
+        }
+        if (priceTo != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("basePrice"), priceTo));
+        }
+        if (enrollmentFrom != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("beginEnrollmentDateTime"), enrollmentFrom));
+        }
+        if (enrollmentTo != null) {
+            predicates.add(cb.lessThan(root.get("beginEnrollmentDateTime"), enrollmentTo));
+        }
+        if (eventFrom != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("beginEventDateTime"), eventFrom));
+        }
+        if (eventTo != null) {
+            predicates.add(cb.lessThan(root.get("beginEventDateTime"), eventTo));
+        }
+        // 조건이 없으면 where 절을 만들지 않는다.
+        return predicates.isEmpty() ? null : cb.and(predicates.toArray(new Predicate[0]));
+    }
+
+    /*
+     * 커서 링크(next, prev)에 같은 조건을 붙인다.
+     */
+    public UriComponentsBuilder appendTo(UriComponentsBuilder builder) {
+        queryParam(builder, "eventStatus", eventStatus);
+        queryParam(builder, "free", free);
+        queryParam(builder, "offline", offline);
+        queryParam(builder, "location", location);
+        queryParam(builder, "priceFrom", priceFrom);
+        queryParam(builder, "priceTo", priceTo);
+        queryParam(builder, "enrollmentFrom", enrollmentFrom);
+        queryParam(builder, "enrollmentTo", enrollmentTo);
+        queryParam(builder, "eventFrom", eventFrom);
+        queryParam(builder, "eventTo", eventTo);
+        return builder;
+    }
+
+    private void queryParam(UriComponentsBuilder builder, String name, Object value) {
+        if (value != null) {
+            builder.queryParam(name, value);
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+package com.study.restapi.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * 이벤트 name, description 전문 검색용 Lucene 인덱스. (애플리케이션에 내장, 로컬 디스크에 저장)
+ * 한국어는 형태소 분석 없이 CJK bigram으로 색인한다.
+ * 쓰기는 바로 반영하고 commit은 주기적으로 한다. 검색할 때 바뀐게 있으면 searcher를 다시 연다.
+ * 커밋 전에 프로세스가 죽으면 마지막 commit 이후의 변경은 사라지므로 EventSearchReindexer로 다시 만든다.
+ */
+@Slf4j
+@Component
+public class EventSearchIndex implements DisposableBean {
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String[] FIELDS = {NAME, DESCRIPTION};
+    private static final Set<String> ID_ONLY = Collections.singleton(ID);
+
+    private final Analyzer analyzer = new CJKAnalyzer();
+    private final Map<String, Float> boosts = new HashMap<>();
+    private final Directory directory;
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+
+    /*
+     * indexPath가 비어있으면 메모리에만 둔다. (테스트용)
+     */
+    public EventSearchIndex(@Value("${events.search.index-path:}") String indexPath) throws IOException {
+        this.directory = StringUtils.hasText(indexPath)
+                ? FSDirectory.open(Paths.get(indexPath))
+                : new ByteBuffersDirectory();
+        this.indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(indexWriter, null);
+        // 이름에 있는 단어가 설명에 있는 단어보다 점수가 높다.
+        boosts.put(NAME, 2f);
+        boosts.put(DESCRIPTION, 1f);
+    }
+
+    /*
+     * DB에는 이미 저장된 뒤에 불리므로 색인에 실패해도 요청을 실패시키지 않는다.
+     */
+    public void index(Event event) {
+        indexAll(Collections.singletonList(event));
+    }
+
+    public void indexAll(Collection<Event> events) {
+        try {
+            for (Event event : events) {
+                indexWriter.updateDocument(new Term(ID, event.getId().toString()), document(event));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to index events. Run the reindex to rebuild the search index.", e);
+        }
+    }
+
+    /*
+     * 인덱스를 비우고 events를 전부 다시 색인한 뒤 commit 한다. 색인한 개수를 돌려준다.
+     * 요청을 받는 중에도 돌 수 있으므로, 그 사이에 index()로 들어온 같은 이벤트와 겹치지 않게 id로 바꿔 쓴다.
+     */
+    public long rebuild(Iterator<Event> events) throws IOException {
+        indexWriter.deleteAll();
+        long count = 0;
+        while (events.hasNext()) {
+            Event event = events.next();
+            indexWriter.updateDocument(new Term(ID, event.getId().toString()), document(event));
+            count++;
+        }
+        indexWriter.commit();
+        searcherManager.maybeRefreshBlocking();
+        return count;
+    }
+
+    public int size() {
+        return indexWriter.getDocStats().numDocs;
+    }
+
+    /*
+     * 검색어의 단어가 모두 (name 또는 description에) 들어있는 이벤트의 id를 점수 순서로 돌려준다.
+     * 검색어는 Lucene 문법으로 해석하지 않고 그대로 단어로 쓴다.
+     */
+    public Page<Long> search(String q, Pageable pageable) {
+        Query query = parse(q);
+        try {
+            searcherManager.maybeRefresh();
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // collector는 numHits 크기의 큐를 미리 채우므로 색인된 문서 수보다 크게 잡지 않는다.
+                long offset = pageable.getOffset();
+                int maxDoc = searcher.getIndexReader().maxDoc();
+                if (offset >= maxDoc) {
+                    return new PageImpl<>(Collections.emptyList(), pageable, searcher.count(query));
+                }
+                int numHits = (int) Math.min(offset + pageable.getPageSize(), maxDoc);
+                TopScoreDocCollector collector = TopScoreDocCollector.create(numHits, Integer.MAX_VALUE);
+                searcher.search(query, collector);
+                TopDocs topDocs = collector.topDocs(Math.toIntExact(offset), pageable.getPageSize());
+
+                List<Long> ids = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    ids.add(Long.valueOf(searcher.doc(scoreDoc.doc, ID_ONLY).get(ID)));
+                }
+                return new PageImpl<>(ids, pageable, collector.getTotalHits());
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.search.commit-interval:30000}")
+    public void commit() throws IOException {
+        if (indexWriter.hasUncommittedChanges()) {
+            indexWriter.commit();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    private Query parse(String q) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(FIELDS, analyzer, boosts);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(QueryParser.escape(q));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("q is wrong.", e);
+        }
+    }
+
+    private Document document(Event event) {
+        Document document = new Document();
+        document.add(new StringField(ID, event.getId().toString(), Field.Store.YES));
+        if (event.getName() != null) {
+            document.add(new TextField(NAME, event.getName(), Field.Store.NO));
+        }
+        if (event.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, event.getDescription(), Field.Store.NO));
+        }
+        return document;
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.study.restapi.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+ * EventRepository의 전체 이벤트로 검색 인덱스를 다시 만든다.
+ * --reindex-events 옵션으로 실행하거나 인덱스가 비어있으면(처음 실행, 메모리 인덱스) 시작할 때 실행된다.
+ * EventExporter와 같이 커서로 읽고 fetch size마다 영속성 컨텍스트를 비운다.
+ */
+@Slf4j
+@Component
+public class EventSearchReindexer implements ApplicationRunner {
+
+    static final String REINDEX_OPTION = "reindex-events";
+
+    private final EventRepository eventRepository;
+    private final EventSearchIndex eventSearchIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public EventSearchReindexer(EventRepository eventRepository, EventSearchIndex eventSearchIndex,
+                                EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                @Value("${events.export.fetch-size:500}") int fetchSize) {
+        this.eventRepository = eventRepository;
+        this.eventSearchIndex = eventSearchIndex;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(REINDEX_OPTION) || eventSearchIndex.size() == 0) {
+            long count = reindex();
+            log.info("Rebuilt event search index with {} events.", count);
+        }
+    }
+
+    public long reindex() {
+        return transactionTemplate.execute(status -> {
+            try (Stream<Event> events = eventRepository.streamAll(null, null, null, fetchSize)) {
+                Iterator<Event> iterator = events.iterator();
+                return eventSearchIndex.rebuild(new Iterator<Event>() {
+                    private int count;
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Event next() {
+                        if (++count % fetchSize == 0) {
+                            entityManager.clear();
+                        }
+                        return iterator.next();
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.study.restapi.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+/*
+ * 이벤트 id는 event_seq에서 받는데(Event), 그 전에는 hibernate_sequence에서 받았으므로 기존 DB에는 event_seq보다 큰 id가 이미 있다.
+ * 웹 서버가 요청을 받기 전(빈 초기화)에 event_seq가 max(id) 다음 블록부터 나눠주도록 올린다. 이미 넘어서 있으면 그대로 둔다.
+ * 시퀀스가 없는 DB(MySQL)에서는 Hibernate가 같은 이름의 테이블(next_val)로 시퀀스를 흉내내므로 그 값을 올린다.
+ */
+@Slf4j
+@Component
+public class EventSequenceInitializer implements InitializingBean {
+
+    private final EntityManager entityManager;
+    private final Dialect dialect;
+    private final TransactionTemplate transactionTemplate;
+
+    public EventSequenceInitializer(EntityManager entityManager, EntityManagerFactory entityManagerFactory,
+                                    PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Long start = transactionTemplate.execute(status -> seed());
+        if (start != null) {
+            log.info("Moved {} to {} past the existing event ids.", Event.ID_SEQUENCE, start);
+        }
+    }
+
+    /*
+     * pooled 옵티마이저는 받은 값 v로 (v - allocationSize, v] 를 쓰므로 max(id) + allocationSize 부터 받게 한다.
+     * 올렸으면 새 시작 값을, 아니면 null을 돌려준다.
+     */
+    Long seed() {
+        Number maxId = (Number) entityManager.createNativeQuery("select max(id) from event").getSingleResult();
+        if (maxId == null) {
+            return null;
+        }
+        long start = maxId.longValue() + Event.ID_ALLOCATION_SIZE;
+
+        if (!dialect.supportsSequences()) {
+            int updated = entityManager.createNativeQuery(
+                    "update " + Event.ID_SEQUENCE + " set next_val = :start where next_val < :start")
+                    .setParameter("start", start)
+                    .executeUpdate();
+            return updated == 0 ? null : start;
+        }
+
+        // 현재 값을 보려면 하나를 받아야 한다. 이미 충분히 크면 그 블록 하나만 버려진다.
+        Number next = (Number) entityManager.createNativeQuery(
+                dialect.getSequenceNextValString(Event.ID_SEQUENCE)).getSingleResult();
+        if (next.longValue() >= start) {
+            return null;
+        }
+        entityManager.createNativeQuery("alter sequence " + Event.ID_SEQUENCE + " restart with " + start)
+                .executeUpdate();
+        return start;
+    }
+
+}
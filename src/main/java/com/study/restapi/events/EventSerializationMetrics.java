@@ -0,0 +1,56 @@
+package com.study.restapi.events;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/*
+ * 응답 본문(HAL JSON) 직렬화 시간을 events.phase{phase=serialization}으로 기록한다.
+ * 메시지 컨버터가 쓰기 직전(beforeBodyWrite)에 시각을 남기고, 요청 처리가 끝났을 때(afterCompletion) 기록한다.
+ */
+@ControllerAdvice(assignableTypes = EventController.class)
+public class EventSerializationMetrics implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = EventSerializationMetrics.class.getName() + ".START";
+
+    private final EventMetrics eventMetrics;
+
+    public EventSerializationMetrics(EventMetrics eventMetrics) {
+        this.eventMetrics = eventMetrics;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            ((ServletServerHttpRequest) request).getServletRequest().setAttribute(START_ATTRIBUTE, eventMetrics.start());
+        }
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start != null && handler instanceof HandlerMethod) {
+            String operation = ((HandlerMethod) handler).getMethod().getName();
+            eventMetrics.record(operation, EventMetrics.Phase.SERIALIZATION, (Long) start);
+        }
+    }
+
+}
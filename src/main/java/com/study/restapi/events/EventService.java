@@ -1,107 +1,729 @@
 package com.study.restapi.events;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.study.restapi.common.ErrorResource;
+import com.study.restapi.common.HalLinks;
 import lombok.var;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.Link;
-import org.springframework.hateoas.server.mvc.ControllerLinkBuilder;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
-import static org.springframework.hateoas.server.mvc.ControllerLinkBuilder.linkTo;
+import static com.study.restapi.events.EventMetrics.CREATE;
+import static com.study.restapi.events.EventMetrics.ENROLL;
+import static com.study.restapi.events.EventMetrics.GET;
+import static com.study.restapi.events.EventMetrics.MODIFY;
+import static com.study.restapi.events.EventMetrics.PATCH;
+import static com.study.restapi.events.EventMetrics.PUBLISH;
+import static com.study.restapi.events.EventMetrics.Phase.ASSEMBLY;
+import static com.study.restapi.events.EventMetrics.Phase.MAPPING;
+import static com.study.restapi.events.EventMetrics.Phase.REPOSITORY;
+import static com.study.restapi.events.EventMetrics.Phase.VALIDATION;
+import static com.study.restapi.events.EventMetrics.QUERY;
+import static com.study.restapi.events.EventMetrics.SEARCH;
 
 @Service
 public class EventService {
 
+    // Event.update()가 free, offline을 계산할 때 읽는 필드
+    private static final Set<String> FREE_OFFLINE_PROPERTIES = new HashSet<>(Arrays.asList("basePrice", "maxPrice", "location"));
+    private static final Set<String> SEARCH_PROPERTIES = new HashSet<>(Arrays.asList("name", "description"));
+
     private final EventRepository eventRepository;
-    private final ModelMapper modelMapper;
+    private final EventMapper eventMapper;
     private final EventValidator eventValidator;
+    private final EventResourceCache eventResourceCache;
+    private final EventMetrics eventMetrics;
+    private final EventSearchIndex eventSearchIndex;
+    private final EnrollmentAdmission enrollmentAdmission;
+    private final EventWriteBehind eventWriteBehind;
+    private final EventLifecycle eventLifecycle;
+    private final EventStats eventStats;
+    private final ObjectMapper objectMapper;
 
-    public EventService(EventRepository eventRepository, ModelMapper modelMapper, EventValidator eventValidator) {
+    public EventService(EventRepository eventRepository, EventMapper eventMapper, EventValidator eventValidator,
+                        EventResourceCache eventResourceCache, EventMetrics eventMetrics,
+                        EventSearchIndex eventSearchIndex, EnrollmentAdmission enrollmentAdmission,
+                        EventWriteBehind eventWriteBehind, EventLifecycle eventLifecycle, EventStats eventStats,
+                        ObjectMapper objectMapper) {
         this.eventRepository = eventRepository;
-        this.modelMapper = modelMapper;
+        this.eventMapper = eventMapper;
         this.eventValidator = eventValidator;
+        this.eventResourceCache = eventResourceCache;
+        this.eventMetrics = eventMetrics;
+        this.eventSearchIndex = eventSearchIndex;
+        this.enrollmentAdmission = enrollmentAdmission;
+        this.eventWriteBehind = eventWriteBehind;
+        this.eventLifecycle = eventLifecycle;
+        this.eventStats = eventStats;
+        this.objectMapper = objectMapper;
     }
 
     public ResponseEntity createEvent(EventDto eventDto, Errors errors) {
         if(errors.hasErrors()) {
-            return badRequest(errors);
+            return badRequest(CREATE, errors);
         }
 
+        long mark = eventMetrics.start();
         eventValidator.validate(eventDto, errors);
+        mark = eventMetrics.record(CREATE, VALIDATION, mark);
         if(errors.hasErrors()) {
-            return badRequest(errors);
+            return badRequest(CREATE, errors);
         }
 
-        Event event = modelMapper.map(eventDto, Event.class);
+        Event event = eventMapper.toEvent(eventDto);
         event.update();
+        mark = eventMetrics.record(CREATE, MAPPING, mark);
+
         Event newEvent = eventRepository.save(event);
+        eventResourceCache.evict(newEvent.getId());
+        eventSearchIndex.index(newEvent);
+        eventStats.added(newEvent);
+        mark = eventMetrics.record(CREATE, REPOSITORY, mark);
 
         // hateoas 링크 추가
-        ControllerLinkBuilder selfLinkBuilder = linkTo(EventController.class).slash(newEvent.getId());
-
-        URI createdUri = selfLinkBuilder.toUri();
+        URI createdUri = URI.create(HalLinks.eventUri(newEvent.getId()));
 
         EventResource eventResource = new EventResource(event);
-        eventResource.add(linkTo(EventController.class).withRel("query-events"));
-        eventResource.add(selfLinkBuilder.withRel("update-event"));
-        eventResource.add(new Link("/docs/index.html#resources-events-create").withRel("profile"));
+        eventResource.add(HalLinks.events("query-events"));
+        eventResource.add(HalLinks.event(newEvent.getId(), "update-event"));
+        eventResource.add(HalLinks.profile("resources-events-create"));
+        eventMetrics.record(CREATE, ASSEMBLY, mark);
 
-        return ResponseEntity.created(createdUri).body(eventResource);
+        return ResponseEntity.created(createdUri).eTag(eTag(newEvent)).body(eventResource);
     }
 
-    private ResponseEntity badRequest(Errors errors) {
+    private ResponseEntity badRequest(String operation, Errors errors) {
+        eventMetrics.validationFailed(operation);
         return ResponseEntity.badRequest().body(new ErrorResource(errors));
     }
 
-    public ResponseEntity queryEvents(Pageable pageable, PagedResourcesAssembler<Event> assembler) {
-        Page<Event> page = eventRepository.findAll(pageable);
+    /*
+     * 엔티티 대신 EventSummary를 조회하고, 개수는 첫 페이지가 다 차지 않으면 세지 않는다.
+     */
+    public ResponseEntity queryEvents(EventSearch search, Errors errors, Pageable pageable,
+                                      PagedResourcesAssembler<EventSummary> assembler, WebRequest request) {
+        if (errors.hasErrors()) {
+            return badRequest(QUERY, errors);
+        }
+
+        long mark = eventMetrics.start();
+        Page<EventSummary> page = PageableExecutionUtils.getPage(eventRepository.findSummaries(search, pageable),
+                pageable, () -> eventRepository.countEvents(search));
+        mark = eventMetrics.record(QUERY, REPOSITORY, mark);
+
+        // 페이지 정보와 각 이벤트의 버전으로 ETag를 만들고, 바뀐게 없으면 HAL 조립과 직렬화를 건너뛴다.
+        String eTag = eTag(page.getNumber() + ":" + page.getSize() + ":" + page.getTotalElements(), page.getContent());
+        if (isNotModified(request, eTag)) {
+            return notModified(eTag);
+        }
+
         var pageResources = assembler.toModel(page);
+        eventMetrics.record(QUERY, ASSEMBLY, mark);
+        return ResponseEntity.ok().eTag(eTag).body(pageResources);
+    }
+
+    /*
+     * 커서 기반 목록 조회. OFFSET을 사용하지 않으므로 얼마나 뒤쪽 페이지를 조회하든 비용이 같다.
+     * count 쿼리는 withCount가 true일 때만 실행한다.
+     */
+    public ResponseEntity queryEventsByCursor(EventSearch search, Errors errors, String after, String before,
+                                              Pageable pageable, boolean withCount, WebRequest request) {
+        if (errors.hasErrors()) {
+            return badRequest(QUERY, errors);
+        }
+
+        boolean backward = before != null && !before.isEmpty();
+        EventCursor cursor;
+        try {
+            if (backward) {
+                cursor = EventCursor.decode(before);
+            } else if (after != null && !after.isEmpty()) {
+                cursor = EventCursor.decode(after);
+            } else {
+                cursor = EventCursor.first(pageable.getSort());
+            }
+        } catch (IllegalArgumentException e) {
+            rejectInput(errors, "wrongCursor", e.getMessage());
+            return badRequest(QUERY, errors);
+        }
+
+        long mark = eventMetrics.start();
+        int size = pageable.getPageSize();
+        // 다음 페이지가 있는지 알기 위해 하나 더 조회한다.
+        List<Event> events = new ArrayList<>(eventRepository.findBySeek(cursor, search, backward, size + 1));
+        boolean hasMore = events.size() > size;
+        if (hasMore) {
+            events.remove(size);
+        }
+        if (backward) {
+            Collections.reverse(events);
+        }
+
+        Long totalElements = withCount ? eventRepository.countEvents(search) : null;
+        mark = eventMetrics.record(QUERY, REPOSITORY, mark);
+        String eTag = eTag(hasMore + ":" + totalElements, events);
+        if (isNotModified(request, eTag)) {
+            return notModified(eTag);
+        }
+
+        List<EventResource> content = new ArrayList<>(events.size());
+        events.forEach(event -> content.add(new EventResource(event)));
+        EventCursorResources resources = new EventCursorResources(content, totalElements,
+                cursorLink(search, backward ? "before" : "after", cursor, size).withSelfRel());
+
+        if (!events.isEmpty()) {
+            Event first = events.get(0);
+            Event last = events.get(events.size() - 1);
+            if (backward || hasMore) {
+                resources.add(cursorLink(search, "after", cursor.next(last), size).withRel("next"));
+            }
+            if (backward ? hasMore : !cursor.isFirst()) {
+                resources.add(cursorLink(search, "before", cursor.next(first), size).withRel("prev"));
+            }
+        }
+        resources.add(HalLinks.profile("resources-events-list"));
+        eventMetrics.record(QUERY, ASSEMBLY, mark);
+
+        return ResponseEntity.ok().eTag(eTag).body(resources);
+    }
+
+    /*
+     * 전문 검색. 인덱스에서 점수 순서로 id를 찾고, 이벤트는 DB에서 한 번에 읽어서 같은 순서로 돌려준다.
+     * 인덱스에는 있지만 DB에 없는 이벤트는 빠진다.
+     */
+    public ResponseEntity searchEvents(String q, Pageable pageable, PagedResourcesAssembler<Event> assembler) {
+        Errors errors = new MapBindingResult(new HashMap<>(), "search");
+        if (!StringUtils.hasText(q)) {
+            errors.reject("wrongQuery", "q is empty.");
+            return badRequest(SEARCH, errors);
+        }
+
+        long mark = eventMetrics.start();
+        Page<Long> ids;
+        try {
+            ids = eventSearchIndex.search(q, pageable);
+        } catch (IllegalArgumentException e) {
+            rejectInput(errors, "wrongQuery", e.getMessage());
+            return badRequest(SEARCH, errors);
+        }
+
+        Map<Long, Event> found = new HashMap<>();
+        eventRepository.findAllById(ids.getContent()).forEach(event -> found.put(event.getId(), event));
+        List<Event> events = new ArrayList<>(found.size());
+        ids.forEach(id -> {
+            Event event = found.get(id);
+            if (event != null) {
+                events.add(event);
+            }
+        });
+        mark = eventMetrics.record(SEARCH, REPOSITORY, mark);
+
+        var pageResources = assembler.toModel(new PageImpl<>(events, pageable, ids.getTotalElements()));
+        pageResources.add(HalLinks.profile("resources-events-search"));
+        eventMetrics.record(SEARCH, ASSEMBLY, mark);
         return ResponseEntity.ok(pageResources);
     }
 
+    private Link cursorLink(EventSearch search, String name, EventCursor cursor, int size) {
+        UriComponentsBuilder builder = search.appendTo(UriComponentsBuilder.fromUriString(HalLinks.eventsUri()));
+        if (cursor.isFirst()) {
+            // 첫 페이지 커서는 인코딩하지 않으므로 정렬 조건을 sort로 보낸다.
+            builder.queryParam(name, "")
+                    .queryParam("sort", cursor.getProperty() + "," + cursor.getDirection().name());
+        } else {
+            builder.queryParam(name, cursor.encode());
+        }
+        return new Link(builder.queryParam("size", size).toUriString());
+    }
 
-    public ResponseEntity getEvent(Long id) {
-        Optional<Event> optionalEvent = eventRepository.findById(id);
-        if(!optionalEvent.isPresent()) {
+    /*
+     * 메모리의 카운터만 읽는다. (EventStats)
+     */
+    public ResponseEntity getEventStats() {
+        EventStatsResource resource = eventStats.toResource();
+        resource.add(new Link(HalLinks.eventsUri() + "/stats").withSelfRel());
+        resource.add(HalLinks.events("query-events"));
+        resource.add(HalLinks.profile("resources-events-stats"));
+        return ResponseEntity.ok(resource);
+    }
+
+    public ResponseEntity getEvent(Long id, WebRequest request) {
+        // 캐시에 없으면 버전 컬럼만 조회해서 엔티티를 읽지 않고 304로 응답한다.
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            EventResource cached = eventResourceCache.getIfPresent(id);
+            Long pendingVersion = eventWriteBehind.pendingVersion(id);
+            Optional<Long> version;
+            if (cached != null) {
+                version = Optional.ofNullable(cached.getContent().getVersion());
+            } else if (pendingVersion != null) {
+                version = Optional.of(pendingVersion);
+            } else {
+                long mark = eventMetrics.start();
+                version = eventRepository.findVersionById(id);
+                eventMetrics.record(GET, REPOSITORY, mark);
+            }
+            if (version.isPresent() && isNotModified(request, eTag(id, version.get()))) {
+                return notModified(eTag(id, version.get()));
+            }
+        }
+
+        // HAL JSON을 받는 요청에는 미리 직렬화해둔 바이트를 그대로 내보낸다. (ByteArrayHttpMessageConverter가 복사만 한다)
+        if (acceptsHal(request)) {
+            RenderedEvent rendered = eventResourceCache.getRendered(id, this::loadEventResource);
+            if (rendered == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return rendered(rendered, request);
+        }
+
+        EventResource eventResource = eventResourceCache.get(id, this::loadEventResource);
+        if(eventResource == null) {
             return ResponseEntity.notFound().build();
         }
 
-        Event event = optionalEvent.get();
-        EventResource eventResource = new EventResource(event);
-        eventResource.add(new Link("/docs/index.html#resources-events-get").withRel("profile"));
-        return ResponseEntity.ok(eventResource);
+        return ResponseEntity.ok().eTag(eTag(eventResource.getContent())).body(eventResource);
+    }
+
+    private ResponseEntity rendered(RenderedEvent rendered, WebRequest request) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(eTag(rendered.getId(), rendered.getVersion()))
+                .contentType(rendered.getContentType());
+        if (rendered.getGzippedBody() == null) {
+            return builder.body(rendered.getBody());
+        }
+
+        builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(rendered.getGzippedBody());
+        }
+        return builder.body(rendered.getBody());
+    }
+
+    /*
+     * Accept-Encoding에서 gzip(없으면 *)의 q 값이 0보다 크면 true. (RFC 7231 5.3.4)
+     * gzip;q=0 처럼 명시적으로 거절하면 *가 있어도 false.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] params = coding.split(";");
+            String name = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.length() > 2 && param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = q;
+            } else if (name.equals("*")) {
+                any = q;
+            }
+        }
+        Double q = gzip != null ? gzip : any;
+        return q != null && q > 0;
+    }
+
+    /*
+     * Accept가 없거나 application/hal+json을 포함하면 true. 그 외에는 컨버터가 협상하도록 객체로 응답한다.
+     */
+    private boolean acceptsHal(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return true;
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.includes(MediaTypes.HAL_JSON)) {
+                    return true;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return false;
+    }
+
+    /*
+     * 캐시에 없을 때만 불리므로 getEvent의 repository, assembly 시간은 캐시 미스만 기록된다.
+     * 아직 DB에 쓰지 않은 수정(write-behind)이 있으면 그 내용을 덮어씌워서 보여준다.
+     */
+    private EventResource loadEventResource(Long id) {
+        long mark = eventMetrics.start();
+        Optional<Event> optionalEvent = eventRepository.findById(id);
+        mark = eventMetrics.record(GET, REPOSITORY, mark);
+        if (!optionalEvent.isPresent()) {
+            return null;
+        }
+
+        EventResource eventResource = new EventResource(eventWriteBehind.overlay(optionalEvent.get()));
+        eventResource.add(HalLinks.profile("resources-events-get"));
+        eventMetrics.record(GET, ASSEMBLY, mark);
+        return eventResource;
     }
 
-    public ResponseEntity modifyEvent(Long id, EventDto eventDto, Errors errors) {
+    public ResponseEntity modifyEvent(Long id, EventDto eventDto, Errors errors, String ifMatch) {
+        if (eventWriteBehind.isEnabled()) {
+            return modifyEventBehind(id, eventDto, errors, ifMatch);
+        }
+        // 꺼진 뒤 저널에서 다시 읽은 수정이 남아있으면 먼저 쓴다.
+        if (eventWriteBehind.pendingVersion(id) != null) {
+            eventWriteBehind.flush();
+        }
+
+        long mark = eventMetrics.start();
         Optional<Event> optionalEvent = eventRepository.findById(id);
+        mark = eventMetrics.record(MODIFY, REPOSITORY, mark);
         if (!optionalEvent.isPresent()) {
             return ResponseEntity.notFound().build();
         }
 
+        if (ifMatch != null && !matches(ifMatch, eTag(optionalEvent.get()))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
         if (errors.hasErrors()) {
-            return badRequest(errors);
+            return badRequest(MODIFY, errors);
         }
 
         eventValidator.validate(eventDto, errors);
+        mark = eventMetrics.record(MODIFY, VALIDATION, mark);
         if (errors.hasErrors()) {
-            return badRequest(errors);
+            return badRequest(MODIFY, errors);
         }
 
         Event existingEvent = optionalEvent.get();
-        modelMapper.map(eventDto, existingEvent);
-        Event savedEvent = eventRepository.save(existingEvent);
+        EventStats.Sample before = EventStats.sample(existingEvent);
+        eventMapper.updateEvent(eventDto, existingEvent);
+        // write-behind 모드와 같게 가격, 장소로 free/offline을 다시 계산한다.
+        existingEvent.update();
+        mark = eventMetrics.record(MODIFY, MAPPING, mark);
+
+        Event savedEvent;
+        try {
+            savedEvent = eventRepository.save(existingEvent);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // 조회한 뒤 저장하기 전에 다른 요청이 먼저 수정한 경우
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        } finally {
+            eventResourceCache.evict(id);
+            // 모집 인원이 바뀌었을 수 있다.
+            enrollmentAdmission.evict(id);
+        }
+        eventSearchIndex.index(savedEvent);
+        eventLifecycle.schedule(savedEvent);
+        eventStats.changed(before, savedEvent);
+        mark = eventMetrics.record(MODIFY, REPOSITORY, mark);
 
         EventResource eventResource = new EventResource(savedEvent);
-        eventResource.add(new Link("/docs/index.html#resources-events-update").withRel("profile"));
+        eventResource.add(HalLinks.profile("resources-events-update"));
+        eventMetrics.record(MODIFY, ASSEMBLY, mark);
 
-        return ResponseEntity.ok(eventResource);
+        return ResponseEntity.ok().eTag(eTag(savedEvent)).body(eventResource);
+    }
+
+    /*
+     * JSON Merge Patch(RFC 7396). 현재 이벤트를 EventDto로 바꾼 뒤 patch를 덮어쓰고, patch에 있는 필드만 엔티티에 복사한다.
+     * 검증은 바뀐 필드와 그 필드를 읽는 교차 규칙만 하고, free/offline은 가격이나 장소가 바뀔 때만 다시 계산한다.
+     * Event는 @DynamicUpdate 이므로 UPDATE에는 바뀐 컬럼만 들어간다.
+     * write-behind 모드에서는 합친 EventDto를 PUT과 같은 경로로 버퍼에 넣는다.
+     */
+    public ResponseEntity patchEvent(Long id, JsonNode patch, String ifMatch) {
+        long mark = eventMetrics.start();
+        Optional<Event> optionalEvent;
+        if (eventWriteBehind.isEnabled()) {
+            optionalEvent = Optional.ofNullable(eventResourceCache.get(id, this::loadEventResource))
+                    .map(EventResource::getContent);
+        } else {
+            if (eventWriteBehind.pendingVersion(id) != null) {
+                eventWriteBehind.flush();
+            }
+            optionalEvent = eventRepository.findById(id);
+        }
+        mark = eventMetrics.record(PATCH, REPOSITORY, mark);
+        if (!optionalEvent.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Event existingEvent = optionalEvent.get();
+        if (ifMatch != null && !matches(ifMatch, eTag(existingEvent))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        EventDto eventDto = eventMapper.toEventDto(existingEvent);
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        if (patch == null || !patch.isObject()) {
+            errors.reject("wrongJson", "request body must be an object.");
+            return badRequest(PATCH, errors);
+        }
+        try {
+            objectMapper.readerForUpdating(eventDto).readValue(patch);
+        } catch (JsonProcessingException e) {
+            // 모르는 필드(free, offline 같은 계산되는 필드 포함)나 형식이 틀린 값
+            rejectInput(errors, "wrongJson", e.getOriginalMessage());
+            return badRequest(PATCH, errors);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        mark = eventMetrics.record(PATCH, MAPPING, mark);
+
+        if (eventWriteBehind.isEnabled()) {
+            return modifyEventBehind(id, eventDto, errors, ifMatch);
+        }
+
+        Set<String> changed = new HashSet<>();
+        for (Iterator<String> names = patch.fieldNames(); names.hasNext(); ) {
+            changed.add(names.next());
+        }
+        eventValidator.validate(eventDto, errors, changed);
+        mark = eventMetrics.record(PATCH, VALIDATION, mark);
+        if (errors.hasErrors()) {
+            return badRequest(PATCH, errors);
+        }
+
+        EventStats.Sample before = EventStats.sample(existingEvent);
+        eventMapper.updateEvent(eventDto, existingEvent, changed);
+        if (!Collections.disjoint(changed, FREE_OFFLINE_PROPERTIES)) {
+            existingEvent.update();
+        }
+        mark = eventMetrics.record(PATCH, MAPPING, mark);
+
+        Event savedEvent;
+        try {
+            savedEvent = eventRepository.save(existingEvent);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        } finally {
+            eventResourceCache.evict(id);
+            if (changed.contains("limitOfEnrollment")) {
+                enrollmentAdmission.evict(id);
+            }
+        }
+        if (!Collections.disjoint(changed, SEARCH_PROPERTIES)) {
+            eventSearchIndex.index(savedEvent);
+        }
+        eventLifecycle.schedule(savedEvent);
+        eventStats.changed(before, savedEvent);
+        mark = eventMetrics.record(PATCH, REPOSITORY, mark);
+
+        EventResource eventResource = new EventResource(savedEvent);
+        eventResource.add(HalLinks.profile("resources-events-patch"));
+        eventMetrics.record(PATCH, ASSEMBLY, mark);
+
+        return ResponseEntity.ok().eTag(eTag(savedEvent)).body(eventResource);
+    }
+
+    /*
+     * write-behind 모드. 검증까지는 요청 안에서 하고, 수정 내용은 EventWriteBehind에 넣어두면 주기적으로 한 번에 쓴다.
+     * 현재 이벤트는 조회 캐시에서 읽고, 수정이 반영된 표현을 다시 캐시에 넣으므로 연속된 수정은 DB를 읽지 않는다.
+     */
+    private ResponseEntity modifyEventBehind(Long id, EventDto eventDto, Errors errors, String ifMatch) {
+        long mark = eventMetrics.start();
+        EventResource current = eventResourceCache.get(id, this::loadEventResource);
+        mark = eventMetrics.record(MODIFY, REPOSITORY, mark);
+        if (current == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (ifMatch != null && !matches(ifMatch, eTag(current.getContent()))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        if (errors.hasErrors()) {
+            return badRequest(MODIFY, errors);
+        }
+
+        eventValidator.validate(eventDto, errors);
+        mark = eventMetrics.record(MODIFY, VALIDATION, mark);
+        if (errors.hasErrors()) {
+            return badRequest(MODIFY, errors);
+        }
+
+        Event modifiedEvent = eventWriteBehind.write(current.getContent(), eventDto);
+        if (modifiedEvent == null) {
+            // 읽은 뒤 버퍼에 넣기 전에 다른 요청이 먼저 수정한 경우
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
+        EventResource cached = new EventResource(modifiedEvent);
+        cached.add(HalLinks.profile("resources-events-get"));
+        eventResourceCache.put(id, cached);
+        eventSearchIndex.index(modifiedEvent);
+        eventStats.changed(EventStats.sample(current.getContent()), modifiedEvent);
+        mark = eventMetrics.record(MODIFY, REPOSITORY, mark);
+
+        EventResource eventResource = new EventResource(modifiedEvent);
+        eventResource.add(HalLinks.profile("resources-events-update"));
+        eventMetrics.record(MODIFY, ASSEMBLY, mark);
+
+        return ResponseEntity.ok().eTag(eTag(modifiedEvent)).body(eventResource);
+    }
+
+    /*
+     * 참가 신청. 메모리의 남은 자리로 먼저 걸러내고, 실제 자리는 DB의 조건부 UPDATE로 차지한다.
+     * 엔티티를 읽어서 증가시키지 않으므로 동시에 몰려도 모집 인원을 넘지 않는다.
+     */
+    public ResponseEntity enrollEvent(Long id) {
+        long mark = eventMetrics.start();
+        if (!enrollmentAdmission.tryAcquire(id, key -> eventRepository.findRemainingById(key).orElse(null))) {
+            return conflict("soldOut", "event is full.");
+        }
+
+        int updated;
+        try {
+            updated = eventRepository.enroll(id, EventStatus.BEGAN_ENROLLMENT);
+        } catch (RuntimeException e) {
+            enrollmentAdmission.release(id);
+            throw e;
+        }
+        eventMetrics.record(ENROLL, REPOSITORY, mark);
+
+        if (updated == 1) {
+            eventResourceCache.evict(id);
+            return ResponseEntity.noContent().build();
+        }
+
+        // 이벤트가 없거나, 신청 기간이 아니거나, 자리가 없다. 드문 경우이므로 다시 읽어서 구분한다.
+        Optional<Event> optionalEvent = eventRepository.findById(id);
+        if (!optionalEvent.isPresent()) {
+            enrollmentAdmission.evict(id);
+            return ResponseEntity.notFound().build();
+        }
+        if (optionalEvent.get().getEventStatus() != EventStatus.BEGAN_ENROLLMENT) {
+            enrollmentAdmission.release(id);
+            return conflict("notEnrolling", "event is not accepting enrollments.");
+        }
+        enrollmentAdmission.soldOut(id);
+        return conflict("soldOut", "event is full.");
+    }
+
+    /*
+     * 초안을 공개한다. 공개한 뒤에는 신청 시작일, 마감일이 되면 EventLifecycle이 상태를 바꾼다.
+     */
+    public ResponseEntity publishEvent(Long id) {
+        long mark = eventMetrics.start();
+        int updated = eventRepository.publish(id);
+        eventMetrics.record(PUBLISH, REPOSITORY, mark);
+
+        Optional<Event> optionalEvent = eventRepository.findById(id);
+        if (!optionalEvent.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (updated == 0) {
+            return conflict("notDraft", "event is already published.");
+        }
+
+        eventResourceCache.evict(id);
+        enrollmentAdmission.evict(id);
+        eventStats.statusChanged(EventStatus.DRAFT, EventStatus.PUBLISHED, 1);
+        // 날짜는 write-behind 버퍼에 있을 수 있다. 이미 지난 전환은 바로 반영된다.
+        eventLifecycle.schedule(eventWriteBehind.overlay(optionalEvent.get()));
+        return ResponseEntity.noContent().build();
+    }
+
+    // 요청의 내용이 들어간 메시지는 인자로도 넘겨서 ErrorsSerializer가 캐시하지 않게 한다.
+    private static void rejectInput(Errors errors, String code, String message) {
+        errors.reject(code, new Object[]{message}, message);
+    }
+
+    private ResponseEntity conflict(String code, String message) {
+        Errors errors = new MapBindingResult(new HashMap<>(), "enrollment");
+        errors.reject(code, message);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResource(errors));
+    }
+
+    private ResponseEntity notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    private String eTag(Event event) {
+        return eTag(event.getId(), event.getVersion());
+    }
+
+    private String eTag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    private String eTag(String prefix, List<? extends EventVersion> events) {
+        StringBuilder builder = new StringBuilder(prefix);
+        events.forEach(event -> builder.append(',').append(event.getId()).append('-').append(event.getVersion()));
+        return "\"" + DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /*
+     * If-None-Match는 약한 비교를 사용한다.
+     */
+    private boolean isNotModified(WebRequest request, String eTag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * If-Match는 강한 비교만 허용한다. (약한 ETag는 일치하지 않는 것으로 본다)
+     */
+    private boolean matches(String ifMatch, String eTag) {
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifMatch)) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,214 @@
+package com.study.restapi.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 이벤트 통계(상태별, 유료/무료, 오프라인/온라인 개수와 basePrice 분포)를 LongAdder 카운터로 들고 있다. (노드 로컬)
+ * 생성, 수정, 상태 전환이 끝날 때마다 바뀐 만큼만 더하고 빼므로 조회할 때는 DB를 읽지 않는다.
+ * 다른 노드의 수정이나 여기를 거치지 않은 변경(삭제 등)은 reconcile-interval 마다 GROUP BY 한 번으로 DB 값에 맞춘다.
+ */
+@Slf4j
+@Component
+public class EventStats {
+
+    private static final EventStatus[] STATUSES = EventStatus.values();
+    private static final int FREE = STATUSES.length;
+    private static final int OFFLINE = FREE + 1;
+    private static final int BASE_PRICE_SUM = OFFLINE + 1;
+    private static final int MAX_PRICE_SUM = BASE_PRICE_SUM + 1;
+    private static final int PRICE_BUCKETS = MAX_PRICE_SUM + 1;
+
+    private final EventRepository eventRepository;
+    // EventWriteBehind -> EventLifecycle -> EventStats 순서로 의존하므로 대사할 때 찾는다.
+    private final ObjectProvider<EventWriteBehind> eventWriteBehind;
+    private final int[] priceBounds;
+    // 상태별 개수, free, offline 개수, 가격 합, 가격 구간별 개수 순서
+    private final LongAdder[] counters;
+    private volatile LocalDateTime reconciledAt;
+
+    public EventStats(EventRepository eventRepository, ObjectProvider<EventWriteBehind> eventWriteBehind,
+                      @Value("${events.stats.price-bounds:0,10000,30000,50000,100000}") int[] priceBounds) {
+        if (priceBounds.length == 0) {
+            throw new IllegalArgumentException("events.stats.price-bounds is empty.");
+        }
+        for (int i = 1; i < priceBounds.length; i++) {
+            if (priceBounds[i - 1] >= priceBounds[i]) {
+                throw new IllegalArgumentException("events.stats.price-bounds must be in ascending order.");
+            }
+        }
+        this.eventRepository = eventRepository;
+        this.eventWriteBehind = eventWriteBehind;
+        this.priceBounds = priceBounds.clone();
+        this.counters = new LongAdder[PRICE_BUCKETS + priceBounds.length + 1];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    /*
+     * 수정하기 전의 값을 sample로 떠두고, 저장한 뒤 changed에 넘긴다. (엔티티는 수정하면서 바뀐다)
+     */
+    static Sample sample(Event event) {
+        return new Sample(event);
+    }
+
+    public void added(Event event) {
+        add(new Sample(event), 1);
+    }
+
+    void changed(Sample before, Event after) {
+        add(before, -1);
+        add(new Sample(after), 1);
+    }
+
+    /*
+     * 상태만 바뀐 경우(EventLifecycle의 일괄 UPDATE). 가격이나 장소는 그대로이므로 상태별 개수만 옮긴다.
+     */
+    void statusChanged(EventStatus from, EventStatus to, long count) {
+        counters[from.ordinal()].add(-count);
+        counters[to.ordinal()].add(count);
+    }
+
+    public EventStatsResource toResource() {
+        long[] values = values();
+        Map<EventStatus, Long> byStatus = new EnumMap<>(EventStatus.class);
+        long total = 0;
+        for (EventStatus status : STATUSES) {
+            byStatus.put(status, values[status.ordinal()]);
+            total += values[status.ordinal()];
+        }
+
+        List<EventStatsResource.PriceBucket> distribution = new ArrayList<>(priceBounds.length + 1);
+        for (int i = 0; i <= priceBounds.length; i++) {
+            Integer min = i == 0 ? null : priceBounds[i - 1] + 1;
+            Integer max = i == priceBounds.length ? null : priceBounds[i];
+            distribution.add(new EventStatsResource.PriceBucket(min, max, values[PRICE_BUCKETS + i]));
+        }
+
+        return new EventStatsResource(total, byStatus,
+                values[FREE], total - values[FREE], values[OFFLINE], total - values[OFFLINE],
+                average(values[BASE_PRICE_SUM], total), average(values[MAX_PRICE_SUM], total),
+                distribution, reconciledAt);
+    }
+
+    /*
+     * DB에서 센 값으로 카운터를 맞춘다. 조회하는 동안 들어온 변경은 조회 결과에 없다고 보고 그대로 남긴다.
+     * (조회 직전에 커밋된 변경이 두 번 세어질 수 있지만 다음 대사에서 다시 맞춰진다)
+     * 버퍼에 있는 write-behind 수정은 카운터에는 이미 들어가 있으므로 먼저 DB에 쓴다.
+     */
+    @Scheduled(fixedDelayString = "${events.stats.reconcile-interval:60000}")
+    public synchronized void reconcile() {
+        EventWriteBehind writeBehind = eventWriteBehind.getIfAvailable();
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
+
+        long[] before = values();
+        long[] actual = new long[counters.length];
+        try {
+            for (Object[] row : eventRepository.aggregateStats(priceBounds)) {
+                add(actual, row);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile event stats. Retrying on the next reconciliation.", e);
+            return;
+        }
+
+        long drift = 0;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i].add(actual[i] - before[i]);
+            drift += Math.abs(actual[i] - before[i]);
+        }
+        // 처음 대사는 0에서 채우는 것이므로 남기지 않는다.
+        if (drift != 0 && reconciledAt != null) {
+            log.info("Reconciled event stats with the database. Total drift {}.", drift);
+        }
+        reconciledAt = LocalDateTime.now();
+    }
+
+    private void add(long[] actual, Object[] row) {
+        EventStatus status = (EventStatus) row[0];
+        long count = (Long) row[3];
+        if (status != null) {
+            actual[status.ordinal()] += count;
+        }
+        if (Boolean.TRUE.equals(row[1])) {
+            actual[FREE] += count;
+        }
+        if (Boolean.TRUE.equals(row[2])) {
+            actual[OFFLINE] += count;
+        }
+        actual[BASE_PRICE_SUM] += toLong(row[4]);
+        actual[MAX_PRICE_SUM] += toLong(row[5]);
+        for (int i = 0; i <= priceBounds.length; i++) {
+            actual[PRICE_BUCKETS + i] += toLong(row[6 + i]);
+        }
+    }
+
+    private void add(Sample sample, int sign) {
+        counters[sample.status.ordinal()].add(sign);
+        if (sample.free) {
+            counters[FREE].add(sign);
+        }
+        if (sample.offline) {
+            counters[OFFLINE].add(sign);
+        }
+        counters[BASE_PRICE_SUM].add(sign * (long) sample.basePrice);
+        counters[MAX_PRICE_SUM].add(sign * (long) sample.maxPrice);
+        counters[PRICE_BUCKETS + bucket(sample.basePrice)].add(sign);
+    }
+
+    private int bucket(int basePrice) {
+        int i = 0;
+        while (i < priceBounds.length && basePrice > priceBounds[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private long[] values() {
+        long[] values = new long[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            values[i] = counters[i].sum();
+        }
+        return values;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    private static double average(long sum, long count) {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    static class Sample {
+
+        private final EventStatus status;
+        private final boolean free;
+        private final boolean offline;
+        private final int basePrice;
+        private final int maxPrice;
+
+        private Sample(Event event) {
+            this.status = event.getEventStatus() == null ? EventStatus.DRAFT : event.getEventStatus();
+            this.free = event.isFree();
+            this.offline = event.isOffline();
+            this.basePrice = event.getBasePrice();
+            this.maxPrice = event.getMaxPrice();
+        }
+
+    }
+
+}
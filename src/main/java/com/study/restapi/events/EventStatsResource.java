@@ -0,0 +1,38 @@
+package com.study.restapi.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 이벤트 통계. reconciledAt은 마지막으로 DB와 맞춘 시각이다. (그 뒤의 생성, 수정은 바로 반영되어 있다)
+ */
+@Getter @AllArgsConstructor
+public class EventStatsResource extends RepresentationModel<EventStatsResource> {
+
+    private final long total;
+    private final Map<EventStatus, Long> byStatus;
+    private final long free;
+    private final long paid;
+    private final long offline;
+    private final long online;
+    private final double averageBasePrice;
+    private final double averageMaxPrice;
+    private final List<PriceBucket> basePriceDistribution;
+    private final LocalDateTime reconciledAt;
+
+    /*
+     * min, max는 basePrice 범위(둘 다 포함)이고, null이면 그쪽으로 열려 있다.
+     */
+    @Getter @AllArgsConstructor
+    public static class PriceBucket {
+        private final Integer min;
+        private final Integer max;
+        private final long count;
+    }
+
+}
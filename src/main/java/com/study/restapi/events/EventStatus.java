@@ -1,7 +1,11 @@
 package com.study.restapi.events;
 
+/*
+ * 이벤트는 DRAFT로 만들어지고, 공개 요청(POST /api/events/{id}/publish)으로 PUBLISHED가 된다.
+ * PUBLISHED -> BEGAN_ENROLLMENT -> CLOSED_ENROLLMENT 는 신청 시작일, 마감일이 되면 EventLifecycle이 바꾼다.
+ */
 public enum EventStatus {
 
-    DRAFT, PUBLISHED, BEGAN_ENROLLMENT;
+    DRAFT, PUBLISHED, BEGAN_ENROLLMENT, CLOSED_ENROLLMENT;
 
 }
@@ -0,0 +1,38 @@
+package com.study.restapi.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.time.LocalDateTime;
+
+/*
+ * 목록 조회(GET /api/events)에서 엔티티 대신 쓰는 읽기 전용 프로젝션.
+ * HAL 표현에 나가는 컬럼과 ETag에 쓰는 version만 조회하고, account는 건드리지 않는다.
+ * 필드 순서와 목록의 rel 이름은 Event 표현과 같게 둔다.
+ */
+@Getter
+@AllArgsConstructor
+@Relation(collectionRelation = "eventList")
+public class EventSummary implements EventVersion {
+
+    private final Long id;
+    @JsonIgnore
+    private final Long version;
+    private final String name;
+    private final String description;
+    private final LocalDateTime beginEnrollmentDateTime;
+    private final LocalDateTime closeEnrollmentDateTime;
+    private final LocalDateTime beginEventDateTime;
+    private final LocalDateTime endEventDateTime;
+    private final String location;
+    private final int basePrice;
+    private final int maxPrice;
+    private final int limitOfEnrollment;
+    private final int enrolled;
+    private final boolean offline;
+    private final boolean free;
+    private final EventStatus eventStatus;
+
+}
@@ -1,31 +1,125 @@
 package com.study.restapi.events;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+/*
+ * EventDto의 필드 제약(NotEmpty, NotNull, Min, Size)과 필드 간 규칙을 규칙 테이블 하나로 한 번에 검사한다.
+ * 컨트롤러에서 @Valid를 쓰지 않으므로 Bean Validation(리플렉션, ConstraintViolation 생성)을 거치지 않는다.
+ * 오류 code와 메시지는 예전 Bean Validation 애노테이션과 같게 남긴다. (EventRule)
+ *
+ * 필드 규칙을 먼저 모두 검사하고, 모두 통과했을 때만 교차 규칙을 검사한다. (예전에 @Valid 후 validate를 부르던 순서와 같다)
+ * events.validation.fail-fast=true 이면 첫 오류에서 멈춘다.
+ */
 @Component
 public class EventValidator {
 
+    private static final List<EventRule> DEFAULT_RULES = Collections.unmodifiableList(defaultRules());
+
+    private final EventRule[] fieldRules;
+    private final EventRule[] crossRules;
+    private final boolean failFast;
+
+    public EventValidator() {
+        this(DEFAULT_RULES, false);
+    }
+
+    @Autowired
+    public EventValidator(ObjectProvider<EventRule> rules, @Value("${events.validation.fail-fast:false}") boolean failFast) {
+        this(concat(DEFAULT_RULES, rules.orderedStream().collect(Collectors.toList())), failFast);
+    }
+
+    EventValidator(List<EventRule> rules, boolean failFast) {
+        this.fieldRules = rules.stream().filter(EventRule::isFieldRule).toArray(EventRule[]::new);
+        this.crossRules = rules.stream().filter(r -> !r.isFieldRule()).toArray(EventRule[]::new);
+        this.failFast = failFast;
+    }
+
     public void validate(EventDto eventDto, Errors errors) {
-        if (eventDto.getBasePrice() > eventDto.getMaxPrice() && eventDto.getMaxPrice() > 0) {
-            /**
-             * rejectValue를 사용하면 field error로 들어가고
-             * reject를 사용하면 global error로 들어간다.
-             */
-            errors.reject("wrongPrices", "maxPrice is wrong.");
+        validate(eventDto, errors, null);
+    }
+
+    /*
+     * 부분 수정(PATCH)용. changed에 있는 필드의 규칙과 그 필드를 읽는 교차 규칙만 검사한다.
+     * 바뀌지 않은 필드는 저장할 때 이미 검사를 통과한 값이다. changed가 null이면 모두 검사한다.
+     */
+    public void validate(EventDto eventDto, Errors errors, Set<String> changed) {
+        if (check(fieldRules, eventDto, errors, changed)) {
+            check(crossRules, eventDto, errors, changed);
         }
+    }
+
+    /*
+     * 오류를 남기지 않고 통과 여부만 본다. 통과한 요청에는 Errors를 만들 필요가 없다.
+     */
+    public boolean isValid(EventDto eventDto) {
+        return check(fieldRules, eventDto, null, null) && check(crossRules, eventDto, null, null);
+    }
 
-        LocalDateTime endEventDateTime = eventDto.getEndEventDateTime();
-        if (endEventDateTime.isBefore(eventDto.getBeginEnrollmentDateTime()) ||
-                endEventDateTime.isBefore(eventDto.getCloseEnrollmentDateTime()) ||
-                endEventDateTime.isBefore(eventDto.getBeginEventDateTime())) {
-            errors.rejectValue("endEventDateTime", "wrongValue", "endEventDateTime is wrong.");
+    private boolean check(EventRule[] rules, EventDto eventDto, Errors errors, Set<String> changed) {
+        boolean passed = true;
+        for (EventRule rule : rules) {
+            if ((changed != null && !rule.dependsOnAny(changed)) || rule.test(eventDto)) {
+                continue;
+            }
+            if (errors == null) {
+                return false;
+            }
+            rule.reject(errors);
+            passed = false;
+            if (failFast) {
+                break;
+            }
         }
+        return passed;
+    }
+
+    private static List<EventRule> defaultRules() {
+        List<EventRule> rules = new ArrayList<>();
+        rules.add(EventRule.notEmpty("name", EventDto::getName));
+        rules.add(EventRule.notEmpty("description", EventDto::getDescription));
+        rules.add(EventRule.size("name", EventDto::getName, Event.TEXT_LENGTH));
+        rules.add(EventRule.size("description", EventDto::getDescription, Event.TEXT_LENGTH));
+        rules.add(EventRule.size("location", EventDto::getLocation, Event.TEXT_LENGTH));
+        rules.add(EventRule.notNull("beginEnrollmentDateTime", EventDto::getBeginEnrollmentDateTime));
+        rules.add(EventRule.notNull("closeEnrollmentDateTime", EventDto::getCloseEnrollmentDateTime));
+        rules.add(EventRule.notNull("beginEventDateTime", EventDto::getBeginEventDateTime));
+        rules.add(EventRule.notNull("endEventDateTime", EventDto::getEndEventDateTime));
+        rules.add(EventRule.min("basePrice", EventDto::getBasePrice, 0));
+        rules.add(EventRule.min("maxPrice", EventDto::getMaxPrice, 0));
+        rules.add(EventRule.min("limitOfEnrollment", EventDto::getLimitOfEnrollment, 0));
+
+        rules.add(EventRule.global("wrongPrices", "maxPrice is wrong.",
+                e -> e.getBasePrice() <= e.getMaxPrice() || e.getMaxPrice() <= 0)
+                .dependsOn("basePrice", "maxPrice"));
+        rules.add(EventRule.field("closeEnrollmentDateTime", "wrongValue", "closeEnrollmentDateTime is wrong.",
+                e -> !e.getCloseEnrollmentDateTime().isBefore(e.getBeginEnrollmentDateTime()))
+                .dependsOn("beginEnrollmentDateTime", "closeEnrollmentDateTime"));
+        rules.add(EventRule.field("beginEventDateTime", "wrongValue", "beginEventDateTime is wrong.",
+                e -> !e.getBeginEventDateTime().isBefore(e.getCloseEnrollmentDateTime()))
+                .dependsOn("closeEnrollmentDateTime", "beginEventDateTime"));
+        rules.add(EventRule.field("endEventDateTime", "wrongValue", "endEventDateTime is wrong.",
+                e -> !e.getEndEventDateTime().isBefore(e.getBeginEnrollmentDateTime())
+                        && !e.getEndEventDateTime().isBefore(e.getCloseEnrollmentDateTime())
+                        && !e.getEndEventDateTime().isBefore(e.getBeginEventDateTime()))
+                .dependsOn("beginEnrollmentDateTime", "closeEnrollmentDateTime", "beginEventDateTime",
+                        "endEventDateTime"));
+        return rules;
+    }
 
-        // TODO beginEventDateTime
-        // TODO CloseEnrollmentDateTime
+    private static List<EventRule> concat(List<EventRule> first, List<EventRule> second) {
+        List<EventRule> rules = new ArrayList<>(first);
+        rules.addAll(second);
+        return rules;
     }
 
-}
\ No newline at end of file
+}
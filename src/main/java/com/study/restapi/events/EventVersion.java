@@ -0,0 +1,12 @@
+package com.study.restapi.events;
+
+/*
+ * ETag를 만들 때 필요한 값. Event와 EventSummary가 같이 쓴다.
+ */
+interface EventVersion {
+
+    Long getId();
+
+    Long getVersion();
+
+}
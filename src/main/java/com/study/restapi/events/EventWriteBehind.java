@@ -0,0 +1,353 @@
+package com.study.restapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+ * 이벤트 수정(PUT)의 write-behind 버퍼. (노드 로컬)
+ * 이벤트별로 마지막 수정 내용만 들고 있다가 flush-interval 마다 이벤트별 트랜잭션에서 엔티티를 읽지 않는 UPDATE로 쓴다.
+ * 수정마다 버전을 하나씩 올려서 ETag가 바뀌게 하고, flush할 때 DB 버전도 그 값으로 맞춘다.
+ * 받은 수정은 응답하기 전에 저널 파일에 기록(fsync)하고, 시작할 때 저널에 남은 수정을 버퍼로 다시 읽는다.
+ * 참가 신청이나 다른 노드의 수정으로 DB 버전이 먼저 바뀌었으면 마지막 수정이 이기도록 덮어쓴다.
+ */
+@Slf4j
+@Component
+public class EventWriteBehind implements MeterBinder, DisposableBean {
+
+    private final EventRepository eventRepository;
+    private final EventMapper eventMapper;
+    private final EventResourceCache eventResourceCache;
+    private final EnrollmentAdmission enrollmentAdmission;
+    private final EventLifecycle eventLifecycle;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path journalPath;
+    private final ConcurrentMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Object journalLock = new Object();
+    private FileChannel journal;
+
+    /*
+     * journalPath가 비어있으면 저널을 쓰지 않는다. (테스트용)
+     * 꺼져 있어도 남아있는 저널은 읽어서 flush 한다.
+     */
+    public EventWriteBehind(EventRepository eventRepository, EventMapper eventMapper,
+                            EventResourceCache eventResourceCache, EnrollmentAdmission enrollmentAdmission,
+                            EventLifecycle eventLifecycle, ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${events.write-behind.enabled:false}") boolean enabled,
+                            @Value("${events.write-behind.journal-path:}") String journalPath) throws IOException {
+        this.eventRepository = eventRepository;
+        this.eventMapper = eventMapper;
+        this.eventResourceCache = eventResourceCache;
+        this.enrollmentAdmission = enrollmentAdmission;
+        this.eventLifecycle = eventLifecycle;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.journalPath = StringUtils.hasText(journalPath) ? Paths.get(journalPath) : null;
+        if (this.journalPath != null) {
+            replay();
+            if (enabled || !pending.isEmpty()) {
+                this.journal = open();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /*
+     * current는 호출하는 쪽이 본 이벤트(버퍼 내용이 덮어씌워져 있을 수 있다)이다.
+     * 그 사이에 다른 수정이 버퍼에 들어왔으면 넣지 않고 null을, 아니면 수정이 반영된 표현을 돌려준다.
+     */
+    Event write(Event current, EventDto eventDto) {
+        Pending[] written = new Pending[1];
+        pending.compute(current.getId(), (id, previous) -> {
+            long version = previous == null ? current.getVersion() : previous.version;
+            if (version != current.getVersion()) {
+                return previous;
+            }
+            Pending next = new Pending(id, previous == null ? version : previous.baseVersion, version + 1, eventDto);
+            written[0] = next;
+            return next;
+        });
+        if (written[0] == null) {
+            return null;
+        }
+        // fsync는 느리므로 compute(같은 칸의 다른 이벤트도 막는다) 밖에서 한다. 다시 읽을 때는 버전이 큰 줄이 이기므로 순서는 상관없다.
+        try {
+            append(written[0]);
+        } catch (UncheckedIOException e) {
+            pending.remove(current.getId(), written[0]);
+            throw e;
+        }
+        return overlay(current, written[0]);
+    }
+
+    /*
+     * 아직 쓰지 않은 수정이 있으면 그 내용을 덮어씌운 사본을, 없으면 event를 그대로 돌려준다.
+     */
+    Event overlay(Event event) {
+        Pending entry = pending.get(event.getId());
+        return entry == null ? event : overlay(event, entry);
+    }
+
+    Long pendingVersion(Long id) {
+        Pending entry = pending.get(id);
+        return entry == null ? null : entry.version;
+    }
+
+    int size() {
+        return pending.size();
+    }
+
+    /*
+     * 한 번에 하나만 실행된다. 이벤트마다 트랜잭션을 따로 써서 한 이벤트가 실패해도 나머지는 쓴다.
+     * 실패한 수정은 버퍼와 저널에 그대로 두고 다음 주기에 다시 쓴다.
+     */
+    @Scheduled(fixedDelayString = "${events.write-behind.flush-interval:200}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Pending> batch = new ArrayList<>(pending.values());
+        Map<Long, Long> versions = new HashMap<>();
+        for (Pending entry : batch) {
+            try {
+                versions.putAll(transactionTemplate.execute(status -> {
+                    Map<Long, Long> written = new HashMap<>(1);
+                    write(entry, written);
+                    return written;
+                }));
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush the buffered update of event {}. Retrying on the next flush.", entry.id, e);
+            }
+        }
+
+        for (Pending entry : batch) {
+            if (!versions.containsKey(entry.id)) {
+                continue;
+            }
+            Long version = versions.get(entry.id);
+            // 그 사이에 새 수정이 들어왔으면 방금 쓴 버전을 기준으로 바꿔서 남겨둔다.
+            pending.computeIfPresent(entry.id, (id, current) ->
+                    current == entry || version == null ? null : current.rebase(version));
+            // 버전이 같아도 지운다. flush 전에 DB를 읽던 캐시 로드가 엔트리가 빠진 뒤에 예전 내용을 넣었을 수 있다.
+            // (Caffeine의 invalidate는 진행 중인 로드가 끝나길 기다린다)
+            eventResourceCache.evict(entry.id);
+            // 모집 인원이 바뀌었을 수 있다.
+            enrollmentAdmission.evict(entry.id);
+            if (version != null) {
+                // 신청 시작일, 마감일이 앞당겨졌을 수 있다.
+                Event event = eventMapper.toEvent(entry.event);
+                event.setId(entry.id);
+                eventLifecycle.scheduleAnyStatus(event);
+            }
+        }
+        compact();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("events.write-behind.pending", pending, Map::size)
+                .description("Buffered event updates not yet written to the database")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        flush();
+        synchronized (journalLock) {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+
+    /*
+     * 쓴 버전을 written에 넣는다. 이벤트가 지워졌으면 null을 넣고, 다시 시도해야 하면 넣지 않는다.
+     * 참가 신청이나 상태 전환도 버전을 올리므로 버전만 보고는 이 수정이 이미 쓰였는지 알 수 없다. DB의 내용과 비교한다.
+     */
+    private void write(Pending entry, Map<Long, Long> written) {
+        Event event = eventMapper.toEvent(entry.event);
+        event.update();
+        event.setId(entry.id);
+        event.setVersion(entry.version);
+        if (eventRepository.updateVersioned(event, entry.baseVersion) == 1) {
+            written.put(entry.id, entry.version);
+            return;
+        }
+
+        Optional<Event> current = eventRepository.findUncached(entry.id);
+        if (!current.isPresent()) {
+            written.put(entry.id, null);
+            return;
+        }
+        long currentVersion = current.get().getVersion();
+        // 저널을 다시 읽은 경우 이미 쓴 수정일 수 있다.
+        if (eventMapper.toEventDto(current.get()).equals(entry.event)) {
+            written.put(entry.id, currentVersion);
+            return;
+        }
+        event.setVersion(Math.max(currentVersion, entry.version) + 1);
+        if (eventRepository.updateVersioned(event, currentVersion) == 1) {
+            written.put(entry.id, event.getVersion());
+        }
+    }
+
+    private Event overlay(Event event, Pending entry) {
+        // 수정할 수 없는 필드(참가 인원, 상태, 소유자)는 읽어온 이벤트의 값을 쓴다.
+        Event view = Event.builder()
+                .id(event.getId())
+                .version(entry.version)
+                .enrolled(event.getEnrolled())
+                .eventStatus(event.getEventStatus())
+                .account(event.getAccount())
+                .build();
+        eventMapper.updateEvent(entry.event, view);
+        view.update();
+        return view;
+    }
+
+    private void replay() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                Pending entry;
+                try {
+                    entry = objectMapper.readValue(line, Pending.class);
+                } catch (IOException e) {
+                    // 기록하다가 죽은 마지막 줄. 응답하지 않은 수정이므로 버린다.
+                    log.warn("Ignoring a broken line in the event write-behind journal {}.", journalPath, e);
+                    break;
+                }
+                pending.merge(entry.id, entry, (previous, next) -> next.version >= previous.version ? next : previous);
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("Replayed {} buffered event updates from {}.", pending.size(), journalPath);
+        }
+    }
+
+    private void append(Pending entry) {
+        synchronized (journalLock) {
+            if (journal == null) {
+                return;
+            }
+            try {
+                write(journal, entry);
+                journal.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /*
+     * 버퍼에 남아있는 수정만 새 파일에 쓰고 저널과 바꾼다.
+     */
+    private void compact() {
+        synchronized (journalLock) {
+            if (journal == null) {
+                return;
+            }
+            Path temp = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    for (Pending entry : pending.values()) {
+                        write(channel, entry);
+                    }
+                    channel.force(false);
+                }
+                journal.close();
+                Files.move(temp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // 저널에 이미 쓴 수정이 남을 뿐이므로 다시 읽어도 결과는 같다.
+                log.warn("Failed to compact the event write-behind journal {}.", journalPath, e);
+            }
+            try {
+                if (!journal.isOpen()) {
+                    journal = open();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        Path parent = journalPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void write(FileChannel channel, Pending entry) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n');
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /*
+     * 저널의 한 줄이기도 하다. baseVersion은 flush할 때 DB에 있어야 하는 버전, version은 쓸 버전이다.
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Pending {
+
+        private Long id;
+        private long baseVersion;
+        private long version;
+        private EventDto event;
+
+        Pending rebase(long baseVersion) {
+            return new Pending(id, baseVersion, Math.max(version, baseVersion + 1), event);
+        }
+
+    }
+
+}
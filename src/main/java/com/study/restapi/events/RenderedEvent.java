@@ -0,0 +1,26 @@
+package com.study.restapi.events;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+/*
+ * 직렬화가 끝난 이벤트 응답 본문. gzippedBody는 events.cache.gzip=true 일때만 있다.
+ */
+@Getter
+class RenderedEvent {
+
+    private final Long id;
+    private final Long version;
+    private final MediaType contentType;
+    private final byte[] body;
+    private final byte[] gzippedBody;
+
+    RenderedEvent(Long id, Long version, MediaType contentType, byte[] body, byte[] gzippedBody) {
+        this.id = id;
+        this.version = version;
+        this.contentType = contentType;
+        this.body = body;
+        this.gzippedBody = gzippedBody;
+    }
+
+}
@@ -1,12 +1,10 @@
 package com.study.restapi.index;
 
-import com.study.restapi.events.EventController;
+import com.study.restapi.common.HalLinks;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 
 @RestController
 public class IndexController {
@@ -14,7 +12,7 @@ public class IndexController {
     @GetMapping("/api")
     public RepresentationModel<?> index() {
         RepresentationModel<?> index = new RepresentationModel<>();
-        index.add(linkTo(EventController.class).withRel("events"));
+        index.add(HalLinks.events("events"));
         return index;
     }
 
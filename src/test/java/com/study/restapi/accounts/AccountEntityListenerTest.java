@@ -0,0 +1,46 @@
+package com.study.restapi.accounts;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountEntityListenerTest {
+
+    private final AccountUserCache accountUserCache = new AccountUserCache(100, Duration.ofMinutes(5));
+    private final AccountEntityListener accountEntityListener = new AccountEntityListener(accountUserCache);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void evictAfterCommit() {
+        // Given
+        accountUserCache.putUserInCache(new AccountUser(1L, "sangjin@gmail.com", "sangjin",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
+        Account account = Account.builder()
+                .id(1L)
+                .email("sangjin@gmail.com")
+                .build();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        accountEntityListener.evict(account);
+
+        // Then
+        assertThat(accountUserCache.getUserFromCache("sangjin@gmail.com")).isNotNull();
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(accountUserCache.getUserFromCache("sangjin@gmail.com")).isNull();
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.study.restapi.accounts;
+
+import com.study.restapi.common.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AccountRolesEvictionTest {
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void revokeRole() {
+        // Given
+        String username = "revoke@email.com";
+        Account account = accountRepository.save(Account.builder()
+                .email(username)
+                .password("pass")
+                .roles(new HashSet<>(Arrays.asList(AccountRole.ADMIN, AccountRole.USER)))
+                .build());
+        assertThat(accountService.loadUserByUsername(username).getAuthorities())
+                .extracting(GrantedAuthority::getAuthority).contains("ROLE_ADMIN");
+
+        try {
+            // When : roles만 바꾼다.
+            new TransactionTemplate(transactionManager).execute(status -> accountRepository.findById(account.getId())
+                    .get().getRoles().remove(AccountRole.ADMIN));
+
+            // Then
+            assertThat(accountService.loadUserByUsername(username).getAuthorities())
+                    .extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        } finally {
+            accountRepository.deleteById(account.getId());
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.study.restapi.accounts;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountUserCacheTest {
+
+    private final AccountUserCache accountUserCache = new AccountUserCache(100, Duration.ofMinutes(5));
+
+    @Test
+    public void cachedUserIsCopied() {
+        // Given
+        accountUserCache.putUserInCache(user(1L, "sangjin@gmail.com"));
+
+        // When
+        AccountUser first = (AccountUser) accountUserCache.getUserFromCache("sangjin@gmail.com");
+        first.eraseCredentials();
+        UserDetails second = accountUserCache.getUserFromCache("sangjin@gmail.com");
+
+        // Then
+        assertThat(first.getAccountId()).isEqualTo(1L);
+        assertThat(second.getPassword()).isEqualTo("sangjin");
+        assertThat(accountUserCache.stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void evictByAccountId() {
+        // Given
+        accountUserCache.putUserInCache(user(1L, "sangjin@gmail.com"));
+        Account account = Account.builder()
+                .id(1L)
+                .email("changed@gmail.com")
+                .build();
+
+        // When
+        accountUserCache.evict(account);
+
+        // Then
+        assertThat(accountUserCache.getUserFromCache("sangjin@gmail.com")).isNull();
+    }
+
+    private AccountUser user(Long id, String email) {
+        return new AccountUser(id, email, "sangjin",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+}
@@ -55,7 +55,6 @@ class AccountServiceTest {
         // Expected
         String username = "random@email.com";
 
-        expectedException
         try {
             accountService.loadUserByUsername(username);
             fail("supposed to be failed");
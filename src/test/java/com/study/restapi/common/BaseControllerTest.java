@@ -1,8 +1,8 @@
 package com.study.restapi.common;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.restapi.events.EventMapper;
 import jdk.nashorn.internal.ir.annotations.Ignore;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -14,7 +14,7 @@ import org.springframework.test.web.servlet.MockMvc;
 @SpringBootTest
 @AutoConfigureMockMvc
 @AutoConfigureRestDocs
-@Import(RestDocsConfiguration.class)
+@Import({RestDocsConfiguration.class, TestSecurityConfiguration.class})
 @ActiveProfiles("test")
 @Ignore // Test 를 가지고 있는 클래스가 아니기 때문에
 public class BaseControllerTest {
@@ -26,6 +26,6 @@ public class BaseControllerTest {
     protected ObjectMapper objectMapper;
 
     @Autowired
-    protected ModelMapper modelMapper;
+    protected EventMapper eventMapper;
 
 }
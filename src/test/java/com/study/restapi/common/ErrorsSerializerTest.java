@@ -0,0 +1,70 @@
+package com.study.restapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.study.restapi.events.EventDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorsSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(Errors.class, new ErrorsSerializer()));
+
+    @Test
+    public void serialize() throws Exception {
+        // Given
+        EventDto eventDto = EventDto.builder().name("Spring").basePrice(10000).build();
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        errors.rejectValue("basePrice", "wrongValue", "basePrice is wrong.");
+        errors.rejectValue("description", "NotEmpty", "must not be \"empty\"");
+        errors.reject("wrongPrices", "maxPrice is wrong.");
+
+        String expected = "["
+                + "{\"field\":\"basePrice\",\"objectName\":\"eventDto\",\"code\":\"wrongValue\","
+                + "\"defaultMessage\":\"basePrice is wrong.\",\"rejectedValue\":\"10000\"},"
+                + "{\"field\":\"description\",\"objectName\":\"eventDto\",\"code\":\"NotEmpty\","
+                + "\"defaultMessage\":\"must not be \\\"empty\\\"\"},"
+                + "{\"objectName\":\"eventDto\",\"code\":\"wrongPrices\",\"defaultMessage\":\"maxPrice is wrong.\"}"
+                + "]";
+
+        // When & Then
+        // 두번째부터는 캐시된 JSON을 쓰지만 결과는 같아야 한다.
+        assertThat(objectMapper.writeValueAsString(errors)).isEqualTo(expected);
+        assertThat(objectMapper.writeValueAsString(errors)).isEqualTo(expected);
+        assertThat(objectMapper.writeValueAsString(new Wrapper(errors))).isEqualTo("{\"errors\":" + expected + "}");
+    }
+
+    @Test
+    public void notCacheRequestContent() throws Exception {
+        // Given : 요청의 내용이 들어간 메시지는 인자와 함께 reject 한다.
+        ErrorsSerializer serializer = new ErrorsSerializer();
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new SimpleModule().addSerializer(Errors.class, serializer));
+
+        for (int i = 0; i < 3; i++) {
+            Errors errors = new BeanPropertyBindingResult(EventDto.builder().build(), "eventDto");
+            String message = "Unrecognized field \"field" + i + "\"";
+            errors.reject("wrongJson", new Object[]{message}, message);
+            errors.reject("wrongPrices", "maxPrice is wrong.");
+
+            // When & Then
+            assertThat(objectMapper.writeValueAsString(errors)).contains("field" + i);
+        }
+        assertThat(serializer.size()).isEqualTo(1);
+    }
+
+    static class Wrapper {
+
+        public final Errors errors;
+
+        Wrapper(Errors errors) {
+            this.errors = errors;
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.study.restapi.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HalLinksTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void links() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events/1");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // When & Then
+        assertThat(HalLinks.event(1L, "self").getHref()).isEqualTo("http://localhost:8080/api/events/1");
+        assertThat(HalLinks.events("query-events").getHref()).isEqualTo("http://localhost:8080/api/events");
+        assertThat(HalLinks.index("index").getHref()).isEqualTo("http://localhost:8080/api");
+        assertThat(HalLinks.profile("resources-events-get"))
+                .isEqualTo(new Link("/docs/index.html#resources-events-get", "profile"));
+    }
+
+    @Test
+    public void linksBehindProxy() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events/1");
+        request.setServerPort(8080);
+        request.addHeader("X-Forwarded-Proto", "https");
+        request.addHeader("X-Forwarded-Host", "api.example.com");
+        request.addHeader("X-Forwarded-Port", "443");
+        request.addHeader("X-Forwarded-Prefix", "/restapi/");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // When & Then
+        assertThat(HalLinks.event(1L, "self").getHref()).isEqualTo("https://api.example.com/restapi/api/events/1");
+    }
+
+}
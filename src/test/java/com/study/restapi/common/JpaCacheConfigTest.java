@@ -0,0 +1,141 @@
+package com.study.restapi.common;
+
+import com.study.restapi.accounts.Account;
+import com.study.restapi.accounts.AccountRepository;
+import com.study.restapi.accounts.AccountRole;
+import com.study.restapi.events.Event;
+import com.study.restapi.events.EventRepository;
+import com.study.restapi.events.EventSearch;
+import com.study.restapi.events.EventStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JpaCacheConfigTest {
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private Event event;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        account = accountRepository.save(Account.builder()
+                .email("cache@email.com")
+                .password("pass")
+                .roles(Collections.singleton(AccountRole.USER))
+                .build());
+        event = eventRepository.save(Event.builder()
+                .name("cache")
+                .description("second level cache")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 11, 11, 11))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 12, 11, 11))
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .endEventDateTime(LocalDateTime.of(2018, 10, 14, 11, 11))
+                .limitOfEnrollment(100)
+                .eventStatus(EventStatus.DRAFT)
+                .account(account)
+                .build());
+        // 컬렉션(roles)은 저장할 때가 아니라 처음 읽을 때 캐시에 들어간다.
+        accountRepository.findById(account.getId());
+        statistics.clear();
+    }
+
+    // 다른 테스트와 같은 인메모리 DB를 쓰므로 만든 데이터는 지운다.
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteById(event.getId());
+        accountRepository.deleteById(account.getId());
+    }
+
+    @Test
+    public void findByIdHitsSecondLevelCache() {
+        // When
+        eventRepository.findById(event.getId());
+        eventRepository.findById(event.getId());
+        accountRepository.findById(account.getId());
+
+        // Then
+        assertThat(statistics.getDomainDataRegionStatistics(JpaCacheConfig.EVENT_REGION).getHitCount()).isEqualTo(2);
+        assertThat(statistics.getDomainDataRegionStatistics(JpaCacheConfig.ACCOUNT_REGION).getHitCount()).isPositive();
+        assertThat(statistics.getDomainDataRegionStatistics(JpaCacheConfig.ACCOUNT_ROLES_REGION).getHitCount()).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(meterRegistry.get("jpa.cache.hit.ratio").tag("region", JpaCacheConfig.EVENT_REGION).gauge().value())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    public void listingHitsQueryCache() {
+        // Given
+        EventSearch search = new EventSearch();
+        search.setEventStatus(EventStatus.DRAFT);
+        eventRepository.findSummaries(search, PageRequest.of(0, 10));
+
+        // When
+        eventRepository.findSummaries(search, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(statistics.getQueryRegionStatistics(JpaCacheConfig.EVENT_QUERY_REGION).getHitCount()).isPositive();
+    }
+
+    @Test
+    public void enrollEvictsOnlyEnrolledEvent() {
+        // Given
+        Event enrolling = eventRepository.save(Event.builder()
+                .name("enrolling")
+                .limitOfEnrollment(100)
+                .eventStatus(EventStatus.BEGAN_ENROLLMENT)
+                .build());
+        try {
+            eventRepository.findById(event.getId());
+            eventRepository.findById(enrolling.getId());
+            EventSearch search = new EventSearch();
+            search.setEventStatus(EventStatus.DRAFT);
+            eventRepository.findSummaries(search, PageRequest.of(0, 10));
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            long queryHits = statistics.getQueryRegionStatistics(JpaCacheConfig.EVENT_QUERY_REGION).getHitCount();
+
+            // When
+            assertThat(eventRepository.enroll(enrolling.getId(), EventStatus.BEGAN_ENROLLMENT)).isEqualTo(1);
+
+            // Then : 다른 이벤트는 캐시에 남고, 목록 쿼리 캐시는 무효가 된다.
+            assertThat(cache.containsEntity(Event.class, event.getId())).isTrue();
+            assertThat(cache.containsEntity(Event.class, enrolling.getId())).isFalse();
+            assertThat(eventRepository.findById(enrolling.getId()).get().getEnrolled()).isEqualTo(1);
+            eventRepository.findSummaries(search, PageRequest.of(0, 10));
+            assertThat(statistics.getQueryRegionStatistics(JpaCacheConfig.EVENT_QUERY_REGION).getHitCount())
+                    .isEqualTo(queryHits);
+        } finally {
+            eventRepository.deleteById(enrolling.getId());
+        }
+    }
+
+}
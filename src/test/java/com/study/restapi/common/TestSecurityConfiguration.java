@@ -0,0 +1,21 @@
+package com.study.restapi.common;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+
+/*
+ * 컨트롤러 테스트는 인증 없이 API 동작만 확인한다.
+ * 인증이 필요한 테스트는 세션에 SecurityContext를 넣어서 보낸다. (EventRateLimiterTest)
+ */
+@TestConfiguration
+public class TestSecurityConfiguration extends WebSecurityConfigurerAdapter {
+
+    @Override
+    protected void configure(HttpSecurity http) throws Exception {
+        http.csrf().disable()
+                .authorizeRequests()
+                .anyRequest().permitAll();
+    }
+
+}
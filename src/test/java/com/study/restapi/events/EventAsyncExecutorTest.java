@@ -0,0 +1,86 @@
+package com.study.restapi.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventAsyncExecutorTest {
+
+    private final EventAsyncExecutor eventAsyncExecutor =
+            new EventAsyncExecutor(Collections.singleton(EventMetrics.GET), 1, 1);
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        RequestContextHolder.resetRequestAttributes();
+        eventAsyncExecutor.destroy();
+    }
+
+    @Test
+    public void syncEndpointRunsInCallerThread() {
+        // When
+        Object result = eventAsyncExecutor.execute(EventMetrics.CREATE, () -> ResponseEntity.ok(Thread.currentThread().getName()));
+
+        // Then
+        assertThat(result).isInstanceOf(ResponseEntity.class);
+        assertThat(((ResponseEntity) result).getBody()).isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void asyncEndpointSeesRequestContext() throws Exception {
+        // When
+        Object result = eventAsyncExecutor.execute(EventMetrics.GET,
+                () -> ResponseEntity.ok(RequestContextHolder.getRequestAttributes() != null));
+
+        // Then
+        assertThat(result).isInstanceOf(CompletableFuture.class);
+        assertThat(((CompletableFuture<ResponseEntity>) result).get().getBody()).isEqualTo(true);
+    }
+
+    @Test
+    public void rejectWith503WhenQueueIsFull() throws Exception {
+        // Given : 스레드 하나는 일하고 있고 큐 한 칸도 차 있다.
+        CountDownLatch latch = new CountDownLatch(1);
+        Object running = eventAsyncExecutor.execute(EventMetrics.GET, () -> {
+            await(latch);
+            return ResponseEntity.ok().build();
+        });
+        Object queued = eventAsyncExecutor.execute(EventMetrics.GET, () -> ResponseEntity.ok().build());
+
+        // When
+        Object rejected = eventAsyncExecutor.execute(EventMetrics.GET, () -> ResponseEntity.ok().build());
+        latch.countDown();
+
+        // Then
+        assertThat(rejected).isInstanceOf(ResponseEntity.class);
+        assertThat(((ResponseEntity) rejected).getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(((ResponseEntity) rejected).getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(((CompletableFuture<ResponseEntity>) running).get().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((CompletableFuture<ResponseEntity>) queued).get().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
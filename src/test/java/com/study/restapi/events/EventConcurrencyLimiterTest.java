@@ -0,0 +1,88 @@
+package com.study.restapi.events;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.DispatcherType;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventConcurrencyLimiterTest {
+
+    private final EventConcurrencyLimiter eventConcurrencyLimiter = new EventConcurrencyLimiter(1, Duration.ZERO);
+
+    private final HandlerMethod handler = handler();
+
+    @Test
+    public void rejectWith503WhenFull() throws Exception {
+        // Given
+        MockHttpServletRequest running = new MockHttpServletRequest();
+        assertThat(eventConcurrencyLimiter.preHandle(running, new MockHttpServletResponse(), handler)).isTrue();
+
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean admitted = eventConcurrencyLimiter.preHandle(new MockHttpServletRequest(), response, handler);
+
+        // Then
+        assertThat(admitted).isFalse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        // 두 번 불려도 한 번만 돌려준다.
+        eventConcurrencyLimiter.afterCompletion(running, new MockHttpServletResponse(), handler, null);
+        eventConcurrencyLimiter.afterCompletion(running, new MockHttpServletResponse(), handler, null);
+        assertThat(eventConcurrencyLimiter.available()).isEqualTo(1);
+    }
+
+    @Test
+    public void holdPermitUntilAsyncDispatchCompletes() throws Exception {
+        // Given : 비동기로 넘어간 요청
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setAsyncSupported(true);
+        eventConcurrencyLimiter.preHandle(request, response, handler);
+        request.startAsync();
+        eventConcurrencyLimiter.afterConcurrentHandlingStarted(request, response, handler);
+        assertThat(eventConcurrencyLimiter.available()).isZero();
+
+        // When : 결과를 내보내는 두 번째 디스패치
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertThat(eventConcurrencyLimiter.preHandle(request, response, handler)).isTrue();
+        assertThat(eventConcurrencyLimiter.available()).isZero();
+        eventConcurrencyLimiter.afterCompletion(request, response, handler, null);
+
+        // Then
+        assertThat(eventConcurrencyLimiter.available()).isEqualTo(1);
+    }
+
+    @Test
+    public void releaseWhenAsyncCompletesWithoutDispatch() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setAsyncSupported(true);
+        eventConcurrencyLimiter.preHandle(request, response, handler);
+        request.startAsync();
+        eventConcurrencyLimiter.afterConcurrentHandlingStarted(request, response, handler);
+
+        // When
+        request.getAsyncContext().complete();
+
+        // Then
+        assertThat(eventConcurrencyLimiter.available()).isEqualTo(1);
+    }
+
+    private static HandlerMethod handler() {
+        try {
+            return new HandlerMethod(new Object(), Object.class.getMethod("toString"));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
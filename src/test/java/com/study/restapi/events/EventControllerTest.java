@@ -1,21 +1,45 @@
 package com.study.restapi.events;
 
+import com.study.restapi.accounts.Account;
+import com.study.restapi.accounts.AccountRepository;
+import com.study.restapi.accounts.AccountRole;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.study.restapi.common.BaseControllerTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
 
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.LongStream;
-
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.restdocs.headers.HeaderDocumentation.*;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
 import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.patch;
 import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.put;
 import static org.springframework.restdocs.payload.PayloadDocumentation.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -27,6 +51,15 @@ public class EventControllerTest extends BaseControllerTest {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EventStats eventStats;
+
     @Test
     @DisplayName("정상적으로 이벤트를 생성하는 테스트")
     void createEvent() throws Exception {
@@ -97,6 +130,7 @@ public class EventControllerTest extends BaseControllerTest {
                                 fieldWithPath("basePrice").description("기본 가격"),
                                 fieldWithPath("maxPrice").description("최대 가격"),
                                 fieldWithPath("limitOfEnrollment").description("등록 제한"),
+                                fieldWithPath("enrolled").description("신청 인원"),
                                 fieldWithPath("free").description("무료"),
                                 fieldWithPath("offline").description("오프라인"),
                                 fieldWithPath("eventStatus").description("이벤트 상태"),
@@ -175,6 +209,83 @@ public class EventControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("_links.index").exists());
     }
 
+    @Test
+    @DisplayName("이벤트를 일괄 생성하면 잘못된 항목만 에러로 응답 받기")
+    void createEvents() throws Exception {
+        EventDto event = EventDto.builder()
+                .name("Spring")
+                .description("REST PI Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 11, 11, 11))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 12, 11, 11))
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .endEventDateTime(LocalDateTime.of(2018, 10, 14, 11, 11))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+        EventDto wrongEvent = EventDto.builder()
+                .name("Spring")
+                .build();
+
+        mockMvc.perform(post("/api/events/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(event, wrongEvent, event))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("created.length()").value(2))
+                .andExpect(jsonPath("created[0].index").value(0))
+                .andExpect(jsonPath("created[0].id").exists())
+                .andExpect(jsonPath("created[0].location").exists())
+                .andExpect(jsonPath("created[1].index").value(2))
+                .andExpect(jsonPath("failed[0].index").value(1))
+                .andExpect(jsonPath("failed[0].errors[0].code").exists())
+                .andExpect(jsonPath("_links.profile").exists());
+    }
+
+    @Test
+    @DisplayName("읽을 수 없는 항목이 있어도 그 항목만 실패하고 다음 항목은 생성된다")
+    void createEvents_WrongItems() throws Exception {
+        String event = objectMapper.writeValueAsString(EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 11, 11, 11))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 12, 11, 11))
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .endEventDateTime(LocalDateTime.of(2018, 10, 14, 11, 11))
+                .limitOfEnrollment(100)
+                .build());
+        // 모르는 필드(중첩된 값 포함), 형식이 틀린 값
+        String unknownProperty = "{\"name\":\"Spring\",\"unknown\":{\"nested\":[1,{\"a\":2}]},\"basePrice\":1}";
+        String wrongFormat = "{\"name\":\"Spring\",\"basePrice\":\"abc\",\"maxPrice\":1}";
+
+        mockMvc.perform(post("/api/events/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + event + "," + unknownProperty + "," + wrongFormat + "," + event + "]"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("created.length()").value(2))
+                .andExpect(jsonPath("created[0].index").value(0))
+                .andExpect(jsonPath("created[1].index").value(3))
+                .andExpect(jsonPath("failed.length()").value(2))
+                .andExpect(jsonPath("failed[0].index").value(1))
+                .andExpect(jsonPath("failed[0].errors[0].code").value("wrongJson"))
+                .andExpect(jsonPath("failed[1].index").value(2))
+                .andExpect(jsonPath("failed[1].errors[0].code").value("wrongJson"));
+    }
+
+    @Test
+    @DisplayName("배열이 아닌 본문으로 일괄 생성하면 400 응답 받기")
+    void createEvents_BadRequest() throws Exception {
+        mockMvc.perform(post("/api/events/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].code").value("wrongJson"));
+    }
+
     @Test
     @DisplayName("30개의 이벤트를 10개씩, 두번째 페이지 조회하기")
     void queryEvents() throws Exception {
@@ -193,6 +304,380 @@ public class EventControllerTest extends BaseControllerTest {
         ;
     }
 
+    @Test
+    @DisplayName("장소와 가격 범위로 이벤트 목록 걸러내기")
+    void queryEventsWithFilter() throws Exception {
+        // Given
+        LongStream.range(0, 5).forEach(index -> {
+            Event event = generateEvent(index);
+            event.setLocation("판교역");
+            event.setBasePrice((int) index * 100);
+            eventRepository.save(event);
+        });
+
+        // When & Then
+        mockMvc.perform(get("/api/events")
+                .param("location", "판교역")
+                .param("priceFrom", "100")
+                .param("priceTo", "300")
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(3))
+                .andExpect(jsonPath("_embedded.eventList[*].location", everyItem(is("판교역"))));
+
+        mockMvc.perform(get("/api/events")
+                .param("after", "")
+                .param("size", "2")
+                .param("location", "판교역")
+                .param("priceFrom", "100")
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(2))
+                .andExpect(jsonPath("_links.next.href", containsString("location=")))
+                .andExpect(jsonPath("_links.next.href", containsString("priceFrom=100")));
+    }
+
+    @Test
+    @DisplayName("이벤트 목록 한 페이지는 소유자 수와 상관없이 목록, 개수 쿼리 두 번으로 조회하기")
+    void queryEventsStatementCount() throws Exception {
+        // Given
+        for (long index = 0; index < 10; index++) {
+            Account account = accountRepository.save(Account.builder()
+                    .email("owner" + index + "@email.com")
+                    .password("pass")
+                    .roles(Collections.singleton(AccountRole.USER))
+                    .build());
+            Event event = generateEvent(index);
+            event.setLocation("역삼역");
+            event.setAccount(account);
+            eventRepository.save(event);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When & Then
+        mockMvc.perform(get("/api/events")
+                .param("location", "역삼역")
+                .param("size", "5")
+        )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(5))
+                .andExpect(jsonPath("_embedded.eventList[0].account").doesNotExist())
+                .andExpect(jsonPath("page.totalElements").value(10));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        // 같은 페이지는 쿼리 캐시에서 읽는다.
+        statistics.clear();
+        mockMvc.perform(get("/api/events")
+                .param("location", "역삼역")
+                .param("size", "5")
+        )
+                .andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("조회 조건의 형식이 잘못되면 400 응답 받기")
+    void queryEventsWithFilter_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/events")
+                .param("eventStatus", "WRONG")
+        )
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("이름과 설명으로 이벤트 검색하기")
+    void searchEvents() throws Exception {
+        // Given
+        EventDto eventDto = eventMapper.toEventDto(generateEvent(1L));
+        eventDto.setName("코틀린 스터디");
+        eventDto.setDescription("Kotlin coroutines 입문");
+        mockMvc.perform(post("/api/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isCreated());
+        eventDto.setName("자바 스터디");
+        eventDto.setDescription("코틀린 coroutines 와 비교");
+        mockMvc.perform(post("/api/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isCreated());
+
+        // When & Then
+        mockMvc.perform(get("/api/events/search")
+                .param("q", "코틀린 coroutines")
+                .param("size", "10")
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(2))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("코틀린 스터디"))
+                .andExpect(jsonPath("_embedded.eventList[1].name").value("자바 스터디"))
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("search-events",
+                        links(
+                                linkWithRel("self").description("셀프 링크"),
+                                linkWithRel("profile").description("프로필 링크")
+                        )));
+    }
+
+    @Test
+    @DisplayName("검색어 없이 검색하면 400 응답 받기")
+    void searchEvents_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/events/search"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].code").value("wrongQuery"));
+    }
+
+    @Test
+    @DisplayName("이벤트를 만들고 수정하면 통계에 바로 반영된다")
+    void getEventStats() throws Exception {
+        // Given
+        EventDto eventDto = eventMapper.toEventDto(generateEvent(1L));
+        eventStats.reconcile();
+        JsonNode before = eventStats();
+        byte[] body = mockMvc.perform(post("/api/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+        long id = objectMapper.readTree(body).get("id").asLong();
+        JsonNode created = eventStats();
+        assertThat(created.get("paid").asLong()).isEqualTo(before.get("paid").asLong() + 1);
+        assertThat(created.get("offline").asLong()).isEqualTo(before.get("offline").asLong() + 1);
+
+        // When
+        mockMvc.perform(patch("/api/events/{id}", id)
+                .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                .content("{\"basePrice\":0,\"maxPrice\":0,\"location\":null}"))
+                .andExpect(status().isOk());
+
+        // Then
+        mockMvc.perform(get("/api/events/stats"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("get-event-stats",
+                        links(
+                                linkWithRel("self").description("셀프 링크"),
+                                linkWithRel("query-events").description("이벤트 목록 조회 링크"),
+                                linkWithRel("profile").description("프로필 링크")
+                        )));
+        JsonNode after = eventStats();
+        assertThat(after.get("total").asLong()).isEqualTo(before.get("total").asLong() + 1);
+        assertThat(after.get("byStatus").get("DRAFT").asLong()).isEqualTo(before.get("byStatus").get("DRAFT").asLong() + 1);
+        assertThat(after.get("free").asLong()).isEqualTo(before.get("free").asLong() + 1);
+        assertThat(after.get("paid").asLong()).isEqualTo(before.get("paid").asLong());
+        assertThat(after.get("online").asLong()).isEqualTo(before.get("online").asLong() + 1);
+        assertThat(after.get("basePriceDistribution").get(0).get("count").asLong())
+                .isEqualTo(before.get("basePriceDistribution").get(0).get("count").asLong() + 1);
+
+        // DB와 맞춰도 그대로다.
+        eventStats.reconcile();
+        assertThat(eventStats()).isEqualTo(after);
+    }
+
+    @Test
+    @DisplayName("통계를 거치지 않은 변경은 DB와 맞출 때 반영된다")
+    void reconcileEventStats() throws Exception {
+        // Given
+        eventStats.reconcile();
+        long total = eventStats().get("total").asLong();
+
+        // When
+        generateEvent(1L);
+
+        // Then
+        assertThat(eventStats().get("total").asLong()).isEqualTo(total);
+        eventStats.reconcile();
+        assertThat(eventStats().get("total").asLong()).isEqualTo(total + 1);
+    }
+
+    @Test
+    @DisplayName("30개의 이벤트를 커서 기반으로 10개씩 조회하기")
+    void queryEventsByCursor() throws Exception {
+        // Given
+        LongStream.range(0, 30).forEach(this::generateEvent);
+
+        // When & Then
+        mockMvc.perform(get("/api/events")
+                .param("after", "")
+                .param("size", "10")
+                .param("sort", "name,DESC")
+        )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.next").exists())
+                .andExpect(jsonPath("_links.prev").doesNotExist())
+                .andExpect(jsonPath("totalElements").doesNotExist())
+        ;
+    }
+
+    @Test
+    @DisplayName("정렬 키가 NULL인 이벤트도 커서로 빠짐없이 한 번씩 조회하기")
+    void queryEventsByCursor_NullSortKey() throws Exception {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (long index = 0; index < 5; index++) {
+            Event event = generateEvent(index);
+            event.setName(index % 2 == 0 ? null : "Spring " + index);
+            event.setLocation("선릉역");
+            ids.add(eventRepository.save(event).getId());
+        }
+
+        for (String sort : new String[]{"name,ASC", "name,DESC"}) {
+            // When
+            List<Long> found = new ArrayList<>();
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get("/api/events")
+                    .param("after", "")
+                    .param("size", "2")
+                    .param("sort", sort)
+                    .param("location", "선릉역"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("_links.self.href", containsString("sort=" + sort)))
+                    .andReturn().getResponse().getContentAsString());
+            while (true) {
+                page.path("_embedded").path("eventList").forEach(event -> found.add(event.get("id").asLong()));
+                if (!page.path("_links").has("next")) {
+                    break;
+                }
+                String next = page.path("_links").path("next").path("href").asText();
+                page = objectMapper.readTree(mockMvc.perform(get(URI.create(next)))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString());
+            }
+
+            // Then
+            assertThat(found).containsExactlyInAnyOrderElementsOf(ids);
+        }
+    }
+
+    @Test
+    @DisplayName("잘못된 커서로 조회하면 400 응답 받기")
+    void queryEventsByCursor_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/events")
+                .param("after", "wrong-cursor")
+        )
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].code").value("wrongCursor"));
+    }
+
+    @Test
+    @DisplayName("전체 이벤트를 NDJSON으로 내보내기")
+    void exportEvents() throws Exception {
+        // Given
+        LongStream.range(0, 3).forEach(this::generateEvent);
+
+        // When & Then
+        String body = mockMvc.perform(get("/api/events/export")
+                .accept(EventExportFormat.NDJSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(EventExportFormat.NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize((int) eventRepository.count());
+        assertThat(objectMapper.readTree(lines[0]).get("name").asText()).isEqualTo("Spring");
+    }
+
+    @Test
+    @DisplayName("상태로 걸러서 이벤트를 CSV로 내보내기")
+    void exportEventsAsCsv() throws Exception {
+        // Given
+        generateEvent(1L);
+
+        // When & Then
+        mockMvc.perform(get("/api/events/export")
+                .param("format", "csv")
+                .param("eventStatus", EventStatus.PUBLISHED.name()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(EventExportFormat.CSV_VALUE))
+                .andExpect(content().string(startsWith("id,name,description,")))
+                .andExpect(content().string(not(containsString("Spring"))));
+    }
+
+    @Test
+    @DisplayName("처리 단계별 시간과 검증 실패 수가 prometheus 엔드포인트에 노출되는지 확인")
+    void metrics() throws Exception {
+        // Given
+        Event event = generateEvent(100L);
+        mockMvc.perform(post("/api/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(EventDto.builder().build())))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("events_validation_failures_total{operation=\"createEvent\",}")))
+                .andExpect(content().string(containsString("events_phase_seconds_count{operation=\"getEvent\",phase=\"serialization\",}")))
+                .andExpect(content().string(containsString("http_server_requests_seconds{")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending{")))
+                .andExpect(content().string(containsString("jdbc_pool_saturation{")));
+    }
+
+    @Test
+    @DisplayName("참가 신청하기, 자리가 없으면 409 응답 받기")
+    void enrollEvent() throws Exception {
+        // Given
+        Event event = generateEvent(100L);
+        event.setLimitOfEnrollment(1);
+        event.setEventStatus(EventStatus.BEGAN_ENROLLMENT);
+        eventRepository.save(event);
+
+        // When & Then
+        mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                .andDo(print())
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("content[0].code").value("soldOut"));
+
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("enrolled").value(1));
+    }
+
+    @Test
+    @DisplayName("초안을 공개하면 PUBLISHED가 되고, 다시 공개하면 409")
+    void publishEvent() throws Exception {
+        // Given
+        Event event = generateEvent(100L);
+
+        // When & Then
+        mockMvc.perform(post("/api/events/{id}/publish", event.getId()))
+                .andDo(print())
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("eventStatus").value(EventStatus.PUBLISHED.name()));
+
+        mockMvc.perform(post("/api/events/{id}/publish", event.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("content[0].code").value("notDraft"));
+
+        mockMvc.perform(post("/api/events/{id}/publish", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+
+        // 상태로 거르는 다른 테스트에 걸리지 않도록 지운다.
+        eventRepository.deleteById(event.getId());
+    }
+
     @Test
     @DisplayName("기존의 이벤트를 하나 조회하기")
     void getEvent() throws Exception {
@@ -209,6 +694,60 @@ public class EventControllerTest extends BaseControllerTest {
                 .andDo(document("get-an-event"));
     }
 
+    @Test
+    @DisplayName("미리 직렬화한 이벤트 본문을 gzip으로 받고, 수정하면 새 본문 받기")
+    void getEventRendered() throws Exception {
+        // Given
+        Event event = generateEvent(100L);
+        byte[] body = mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // When & Then
+        byte[] gzipped = mockMvc.perform(get("/api/events/{id}", event.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(StreamUtils.copyToByteArray(in)).isEqualTo(body);
+        }
+        mockMvc.perform(get("/api/events/{id}", event.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(body));
+
+        EventDto eventDto = eventMapper.toEventDto(event);
+        eventDto.setName("Updated Event");
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Updated Event"));
+    }
+
+    @Test
+    @DisplayName("바뀌지 않은 이벤트를 ETag로 조회하면 304 응답 받기")
+    void getEvent304() throws Exception {
+        // Given
+        Event event = generateEvent(100L);
+        String eTag = mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/events/{id}", event.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
     @Test
     @DisplayName("없는 이벤트를 조회 했을 때 404 응답 받기")
     void getEvent404() throws Exception {
@@ -224,7 +763,7 @@ public class EventControllerTest extends BaseControllerTest {
         // Given
         Event event = generateEvent(100L);
 
-        EventDto eventDto = modelMapper.map(event, EventDto.class);
+        EventDto eventDto = eventMapper.toEventDto(event);
         String eventName = "Updated Event";
         eventDto.setName(eventName);
 
@@ -239,6 +778,80 @@ public class EventControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("_links.self").exists());
     }
 
+    @Test
+    @DisplayName("이벤트를 수정한 뒤 조회하면 수정된 이벤트를 응답 받기")
+    void getEventAfterModify() throws Exception {
+        // Given
+        Event event = generateEvent(100L);
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk());
+
+        EventDto eventDto = eventMapper.toEventDto(event);
+        String eventName = "Updated Event";
+        eventDto.setName(eventName);
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value(eventName));
+    }
+
+    @Test
+    @DisplayName("가격과 장소를 수정하면 free, offline을 다시 계산하기")
+    void updateEventRecomputesFree() throws Exception {
+        // Given
+        Event event = generateEvent(100L);
+        EventDto eventDto = eventMapper.toEventDto(event);
+        eventDto.setBasePrice(0);
+        eventDto.setMaxPrice(0);
+        eventDto.setLocation(null);
+
+        // When & Then
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("free").value(true))
+                .andExpect(jsonPath("offline").value(false));
+        Event saved = eventRepository.findById(event.getId()).get();
+        assertThat(saved.isFree()).isTrue();
+        assertThat(saved.isOffline()).isFalse();
+    }
+
+    @Test
+    @DisplayName("오래된 ETag로 이벤트를 수정하면 412 응답 받기")
+    void modifyEvent412() throws Exception {
+        // Given
+        Event event = generateEvent(100L);
+        EventDto eventDto = eventMapper.toEventDto(event);
+        eventDto.setName("Updated Event");
+
+        String eTag = mockMvc.perform(put("/api/events/{id}", event.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"" + event.getId() + "-" + event.getVersion() + "\"")
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"" + event.getId() + "-" + event.getVersion() + "\"")
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .content(objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     @DisplayName("입력값이 비어있는 경우에 이벤트 수정 실패")
     void modifyEvent400_Empty() throws Exception {
@@ -262,7 +875,7 @@ public class EventControllerTest extends BaseControllerTest {
         // Given
         Event event = generateEvent(100L);
 
-        EventDto eventDto = modelMapper.map(event, EventDto.class);
+        EventDto eventDto = eventMapper.toEventDto(event);
         eventDto.setBasePrice(200000);
         eventDto.setMaxPrice(100);
 
@@ -280,7 +893,7 @@ public class EventControllerTest extends BaseControllerTest {
     void modifyEvent404() throws Exception {
         // Given
         Event event = generateEvent(100L);
-        EventDto eventDto = modelMapper.map(event, EventDto.class);
+        EventDto eventDto = eventMapper.toEventDto(event);
 
         // When & Then
         mockMvc.perform(put("/api/events/{id}", 12345L)
@@ -291,6 +904,73 @@ public class EventControllerTest extends BaseControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("JSON Merge Patch로 이벤트의 일부만 수정하기")
+    void patchEvent() throws Exception {
+        // Given
+        Event event = generateEvent(100L);
+
+        // When & Then
+        mockMvc.perform(patch("/api/events/{id}", event.getId())
+                .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                .header(HttpHeaders.IF_MATCH, "\"" + event.getId() + "-" + event.getVersion() + "\"")
+                .content("{\"name\":\"Patched Event\",\"location\":null}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + event.getId() + "-" + (event.getVersion() + 1) + "\""))
+                .andExpect(jsonPath("name").value("Patched Event"))
+                .andExpect(jsonPath("description").value(event.getDescription()))
+                .andExpect(jsonPath("maxPrice").value(event.getMaxPrice()))
+                .andExpect(jsonPath("offline").value(false))
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("patch-event"));
+
+        Event saved = eventRepository.findById(event.getId()).get();
+        assertThat(saved.getName()).isEqualTo("Patched Event");
+        assertThat(saved.getLocation()).isNull();
+        assertThat(saved.getBeginEventDateTime()).isEqualTo(event.getBeginEventDateTime());
+    }
+
+    @Test
+    @DisplayName("patch의 값이 잘못되었거나 모르는 필드가 있으면 400 응답 받기")
+    void patchEvent400() throws Exception {
+        // Given
+        Event event = generateEvent(100L);
+
+        // When & Then
+        mockMvc.perform(patch("/api/events/{id}", event.getId())
+                .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                .content("{\"maxPrice\":50}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].code").value("wrongPrices"));
+        mockMvc.perform(patch("/api/events/{id}", event.getId())
+                .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                .content("{\"free\":true}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].code").value("wrongJson"));
+        mockMvc.perform(patch("/api/events/{id}", event.getId())
+                .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/events/{id}", 12345L)
+                .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                .content("{\"name\":\"Patched Event\"}"))
+                .andExpect(status().isNotFound());
+
+        assertThat(eventRepository.findById(event.getId()).get().getVersion()).isEqualTo(event.getVersion());
+    }
+
+    private JsonNode eventStats() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/events/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        // reconciledAt과 링크는 비교하지 않는다.
+        ObjectNode stats = (ObjectNode) objectMapper.readTree(body);
+        stats.remove("reconciledAt");
+        stats.remove("_links");
+        return stats;
+    }
+
     private Event generateEvent(Long index) {
         Event event = Event.builder()
                 .name("Spring")
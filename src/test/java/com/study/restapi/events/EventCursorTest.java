@@ -0,0 +1,70 @@
+package com.study.restapi.events;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCursorTest {
+
+    @Test
+    public void encodeAndDecode() {
+        // Given
+        Event event = Event.builder()
+                .id(10L)
+                .name("Spring, REST")
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .build();
+
+        // When
+        EventCursor cursor = EventCursor.first(Sort.by(Sort.Direction.DESC, "name")).next(event);
+        EventCursor decoded = EventCursor.decode(cursor.encode());
+
+        // Then
+        assertThat(decoded.getProperty()).isEqualTo("name");
+        assertThat(decoded.getDirection()).isEqualTo(Sort.Direction.DESC);
+        assertThat(decoded.getValue()).isEqualTo("Spring, REST");
+        assertThat(decoded.getId()).isEqualTo(10L);
+    }
+
+    @Test
+    public void encodeAndDecodeNullValue() {
+        // Given
+        EventCursor first = EventCursor.first(Sort.by("beginEventDateTime"));
+
+        // When
+        EventCursor decoded = EventCursor.decode(first.next(Event.builder().id(10L).build()).encode());
+        EventCursor empty = EventCursor.decode(EventCursor.first(Sort.by("name"))
+                .next(Event.builder().id(11L).name("").build()).encode());
+
+        // Then : NULL과 빈 문자열을 구분한다.
+        assertThat(decoded.getValue()).isNull();
+        assertThat(decoded.getId()).isEqualTo(10L);
+        assertThat(empty.getValue()).isEqualTo("");
+    }
+
+    @Test
+    public void firstWithoutSort() {
+        EventCursor cursor = EventCursor.first(Sort.unsorted());
+
+        assertThat(cursor.isFirst()).isTrue();
+        assertThat(cursor.isIdOnly()).isTrue();
+        assertThat(cursor.getDirection()).isEqualTo(Sort.Direction.ASC);
+    }
+
+    @Test
+    public void firstWithUnknownProperty() {
+        assertThatThrownBy(() -> EventCursor.first(Sort.by("description")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void decodeWrongCursor() {
+        assertThatThrownBy(() -> EventCursor.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.study.restapi.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventEnrollmentTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    // 다른 테스트와 같은 인메모리 DB를 쓰므로 만든 이벤트는 지운다.
+    private final List<Event> events = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        events.forEach(event -> eventRepository.deleteById(event.getId()));
+    }
+
+    @Test
+    @DisplayName("동시에 많은 신청이 몰려도 모집 인원을 넘지 않는다")
+    void enrollConcurrently() throws Exception {
+        // Given
+        Event event = eventRepository.save(event(EventStatus.BEGAN_ENROLLMENT, 100));
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit((Callable<Void>) () -> {
+                // 409 응답 본문의 링크를 만들 때 요청 정보가 필요하다.
+                RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+                start.await();
+                for (int j = 0; j < ATTEMPTS_PER_THREAD; j++) {
+                    ResponseEntity response = eventService.enrollEvent(event.getId());
+                    if (response.getStatusCode() == HttpStatus.NO_CONTENT) {
+                        enrolled.incrementAndGet();
+                    } else if (response.getStatusCode() == HttpStatus.CONFLICT) {
+                        soldOut.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        Event saved = eventRepository.findById(event.getId()).get();
+        assertThat(enrolled.get()).isEqualTo(100);
+        assertThat(soldOut.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD - 100);
+        assertThat(saved.getEnrolled()).isEqualTo(100);
+        assertThat(saved.getVersion()).isEqualTo(event.getVersion() + 100);
+    }
+
+    @Test
+    @DisplayName("신청 기간이 아닌 이벤트는 409, 없는 이벤트는 404")
+    void enrollNotEnrolling() {
+        // Given
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Event event = eventRepository.save(event(EventStatus.PUBLISHED, 100));
+
+        // When & Then
+        assertThat(eventService.enrollEvent(event.getId()).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(eventService.enrollEvent(Long.MAX_VALUE).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(eventRepository.findById(event.getId()).get().getEnrolled()).isZero();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private Event event(EventStatus eventStatus, int limitOfEnrollment) {
+        Event event = Event.builder()
+                .name("Enrollment")
+                .description("참가 신청 동시성 테스트")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 11, 11, 11))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 12, 11, 11))
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .endEventDateTime(LocalDateTime.of(2018, 10, 14, 11, 11))
+                .limitOfEnrollment(limitOfEnrollment)
+                .eventStatus(eventStatus)
+                .build();
+        events.add(event);
+        return event;
+    }
+
+}
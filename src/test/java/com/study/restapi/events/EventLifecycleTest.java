@@ -0,0 +1,147 @@
+package com.study.restapi.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "events.lifecycle.enabled=true")
+class EventLifecycleTest {
+
+    @Autowired
+    EventLifecycle eventLifecycle;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EventResourceCache eventResourceCache;
+
+    @Autowired
+    EnrollmentAdmission enrollmentAdmission;
+
+    @Autowired
+    EventStats eventStats;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    // 다른 테스트와 같은 인메모리 DB를 쓰므로 만든 이벤트는 지운다.
+    private final List<Event> events = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        events.forEach(event -> eventRepository.deleteById(event.getId()));
+    }
+
+    @Test
+    @DisplayName("신청 시작일과 마감일이 되면 상태가 바뀌고, 그 사이에 미뤄진 전환은 건너뛴다")
+    void applyWhenDue() throws Exception {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Event event = save(now.plusSeconds(1), now.plusSeconds(2));
+        Event postponed = save(now.plusSeconds(1), now.plusHours(1));
+
+        // When
+        eventLifecycle.schedule(event);
+        eventLifecycle.schedule(postponed);
+        postponed.setBeginEnrollmentDateTime(now.plusMinutes(30));
+        eventRepository.save(postponed);
+
+        // Then
+        assertThat(awaitStatus(event, EventStatus.BEGAN_ENROLLMENT)).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+        assertThat(awaitStatus(event, EventStatus.CLOSED_ENROLLMENT)).isEqualTo(EventStatus.CLOSED_ENROLLMENT);
+        assertThat(eventRepository.findById(postponed.getId()).get().getEventStatus()).isEqualTo(EventStatus.PUBLISHED);
+    }
+
+    @Test
+    @DisplayName("다시 시작하면 꺼져 있던 동안 지난 전환을 바로 반영한다")
+    void recoverAfterRestart() throws Exception {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Event began = save(now.minusHours(2), now.plusHours(1));
+        Event closed = save(now.minusHours(3), now.minusHours(1));
+        EventLifecycle restarted = new EventLifecycle(eventRepository, eventResourceCache, enrollmentAdmission,
+                eventStats, transactionManager, true, Duration.ofMinutes(10), 500);
+
+        // When
+        restarted.run(null);
+
+        // Then
+        try {
+            assertThat(awaitStatus(began, EventStatus.BEGAN_ENROLLMENT)).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+            assertThat(awaitStatus(closed, EventStatus.CLOSED_ENROLLMENT)).isEqualTo(EventStatus.CLOSED_ENROLLMENT);
+            // 마감일이 horizon 밖이면 아직 읽지 않는다.
+            assertThat(restarted.size()).isZero();
+        } finally {
+            restarted.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("같은 이벤트를 여러 번 스케줄해도 전환은 큐에 한 번만 들어간다")
+    void scheduleOnce() throws Exception {
+        // Given : 신청 시작일만 horizon 안에 있다.
+        LocalDateTime now = LocalDateTime.now();
+        Event event = save(now.plusMinutes(5), now.plusHours(1));
+        EventLifecycle restarted = new EventLifecycle(eventRepository, eventResourceCache, enrollmentAdmission,
+                eventStats, transactionManager, true, Duration.ofMinutes(10), 500);
+        restarted.run(null);
+
+        try {
+            for (int i = 0; i < 50 && restarted.size() == 0; i++) {
+                Thread.sleep(100);
+            }
+            int loaded = restarted.size();
+
+            // When : write-behind flush처럼 수정할 때마다 다시 스케줄한다.
+            for (int i = 0; i < 100; i++) {
+                restarted.schedule(event);
+            }
+
+            // Then
+            assertThat(loaded).isPositive();
+            assertThat(restarted.size()).isLessThanOrEqualTo(loaded);
+        } finally {
+            restarted.destroy();
+        }
+    }
+
+    private EventStatus awaitStatus(Event event, EventStatus expected) throws InterruptedException {
+        EventStatus status = eventRepository.findById(event.getId()).get().getEventStatus();
+        for (int i = 0; i < 50 && status != expected; i++) {
+            Thread.sleep(100);
+            status = eventRepository.findById(event.getId()).get().getEventStatus();
+        }
+        return status;
+    }
+
+    private Event save(LocalDateTime beginEnrollment, LocalDateTime closeEnrollment) {
+        Event event = eventRepository.save(Event.builder()
+                .name("Lifecycle")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(beginEnrollment)
+                .closeEnrollmentDateTime(closeEnrollment)
+                .beginEventDateTime(closeEnrollment.plusDays(1))
+                .endEventDateTime(closeEnrollment.plusDays(2))
+                .limitOfEnrollment(100)
+                .eventStatus(EventStatus.PUBLISHED)
+                .build());
+        events.add(event);
+        return event;
+    }
+
+}
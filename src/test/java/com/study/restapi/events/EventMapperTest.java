@@ -0,0 +1,72 @@
+package com.study.restapi.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventMapperTest {
+
+    private final EventMapper eventMapper = new EventMapper();
+
+    @Test
+    public void toEventAndBack() {
+        // Given
+        EventDto eventDto = eventDto();
+
+        // When
+        Event event = eventMapper.toEvent(eventDto);
+
+        // Then
+        assertThat(event.getId()).isNull();
+        assertThat(event.getEventStatus()).isEqualTo(EventStatus.DRAFT);
+        assertThat(eventMapper.toEventDto(event)).isEqualTo(eventDto);
+    }
+
+    @Test
+    public void partialUpdate() {
+        // Given
+        Event event = eventMapper.toEvent(eventDto());
+        EventDto changes = EventDto.builder()
+                .name("Updated Event")
+                .maxPrice(500)
+                .build();
+
+        // When
+        eventMapper.updateEvent(changes, event, new HashSet<>(Arrays.asList("name", "maxPrice")));
+
+        // Then
+        assertThat(event.getName()).isEqualTo("Updated Event");
+        assertThat(event.getMaxPrice()).isEqualTo(500);
+        assertThat(event.getDescription()).isEqualTo("REST API Development with Spring");
+        assertThat(event.getBasePrice()).isEqualTo(100);
+    }
+
+    @Test
+    public void partialUpdateWithUnknownProperty() {
+        Event event = eventMapper.toEvent(eventDto());
+
+        assertThatThrownBy(() -> eventMapper.updateEvent(eventDto(), event, new HashSet<>(Arrays.asList("free"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private EventDto eventDto() {
+        return EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 11, 11, 11))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 12, 11, 11))
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .endEventDateTime(LocalDateTime.of(2018, 10, 14, 11, 11))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+    }
+
+}
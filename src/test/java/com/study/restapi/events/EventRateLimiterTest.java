@@ -0,0 +1,119 @@
+package com.study.restapi.events;
+
+import com.study.restapi.accounts.Account;
+import com.study.restapi.accounts.AccountRepository;
+import com.study.restapi.accounts.AccountRole;
+import com.study.restapi.common.BaseControllerTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// 테스트 중에는 토큰이 다시 채워지지 않도록 속도를 아주 느리게 둔다.
+@TestPropertySource(properties = {
+        "events.rate-limit.enabled=true",
+        "events.rate-limit.anonymous.per-second=0.001",
+        "events.rate-limit.anonymous.burst=2",
+        "events.rate-limit.user.per-second=0.001",
+        "events.rate-limit.user.burst=3",
+        "events.rate-limit.admin.per-second=0.01",
+        "events.rate-limit.admin.burst=5"
+})
+public class EventRateLimiterTest extends BaseControllerTest {
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Test
+    @DisplayName("인증되지 않은 요청은 주소별로 한도를 넘으면 429, 읽기와 다른 엔드포인트는 따로 센다")
+    void limitAnonymousWrites() throws Exception {
+        // Given
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(modify("10.0.0.1")).andExpect(status().isNotFound());
+        }
+
+        // When & Then
+        mockMvc.perform(modify("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, not(is("0"))));
+        mockMvc.perform(modify("10.0.0.2")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/events/{id}", Long.MAX_VALUE).with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/api/events/{id}", Long.MAX_VALUE).with(remoteAddr("10.0.0.1"))
+                .contentType(EventController.MERGE_PATCH_JSON_VALUE)
+                .content("{}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("인증된 요청은 계정별로 역할의 한도를 쓴다")
+    void limitByAccountRole() throws Exception {
+        // Given
+        RequestPostProcessor user = authenticate(saveAccount("rate-limit-user@email.com", AccountRole.USER));
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(modify("10.0.1.1").with(user)).andExpect(status().isNotFound());
+        }
+
+        // When & Then : 같은 계정이면 주소가 달라도 한도를 같이 쓴다.
+        mockMvc.perform(modify("10.0.1.2").with(user)).andExpect(status().isTooManyRequests());
+
+        RequestPostProcessor admin = authenticate(saveAccount("rate-limit-admin@email.com", AccountRole.ADMIN));
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(modify("10.0.1.1").with(admin)).andExpect(status().isNotFound());
+        }
+        mockMvc.perform(modify("10.0.1.1").with(admin)).andExpect(status().isTooManyRequests());
+    }
+
+    private MockHttpServletRequestBuilder modify(String remoteAddr) throws Exception {
+        return put("/api/events/{id}", Long.MAX_VALUE)
+                .with(remoteAddr(remoteAddr))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(EventDto.builder().name("Rate Limit").build()));
+    }
+
+    private RequestPostProcessor remoteAddr(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+
+    private Account saveAccount(String email, AccountRole role) {
+        return accountRepository.save(Account.builder()
+                .email(email)
+                .password("pass")
+                .roles(Collections.singleton(role))
+                .build());
+    }
+
+    // 토큰처럼 username만 들고 있는 인증. AccountService가 계정을 찾는다.
+    // 시큐리티 필터가 요청마다 세션에서 SecurityContext를 읽으므로 세션에 넣어서 보낸다.
+    private RequestPostProcessor authenticate(Account account) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(
+                new UsernamePasswordAuthenticationToken(account.getEmail(), null, Collections.emptyList()));
+        return request -> {
+            request.getSession().setAttribute(
+                    HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+            return request;
+        };
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.study.restapi.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventSearchIndexTest {
+
+    private final EventSearchIndex eventSearchIndex = new EventSearchIndex("");
+
+    EventSearchIndexTest() throws IOException {
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        eventSearchIndex.destroy();
+    }
+
+    @Test
+    public void searchRankedByName() {
+        // Given
+        eventSearchIndex.indexAll(Arrays.asList(
+                event(1L, "Spring REST API", "강남역 스터디"),
+                event(2L, "JPA 스터디", "Spring Data JPA"),
+                event(3L, "Kotlin", "coroutines")));
+
+        // When
+        Page<Long> ids = eventSearchIndex.search("spring", PageRequest.of(0, 10));
+
+        // Then
+        assertThat(ids.getTotalElements()).isEqualTo(2);
+        assertThat(ids.getContent()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void updateReplacesDocument() {
+        // Given
+        eventSearchIndex.index(event(1L, "Spring", "강남역"));
+
+        // When
+        eventSearchIndex.index(event(1L, "Kotlin", "판교역"));
+
+        // Then
+        assertThat(eventSearchIndex.search("spring", PageRequest.of(0, 10)).getTotalElements()).isZero();
+        assertThat(eventSearchIndex.search("판교", PageRequest.of(0, 10)).getContent()).containsExactly(1L);
+    }
+
+    @Test
+    public void searchPaged() throws IOException {
+        // Given
+        eventSearchIndex.rebuild(Arrays.asList(
+                event(1L, "Spring", null),
+                event(2L, "Spring", null),
+                event(3L, "Spring", null)).iterator());
+
+        // When
+        Page<Long> ids = eventSearchIndex.search("spring", PageRequest.of(1, 2));
+
+        // Then
+        assertThat(ids.getTotalElements()).isEqualTo(3);
+        assertThat(ids.getContent()).hasSize(1);
+    }
+
+    @Test
+    public void searchPageBeyondIndex() throws IOException {
+        // Given
+        eventSearchIndex.rebuild(Arrays.asList(
+                event(1L, "Spring", null),
+                event(2L, "Spring", null)).iterator());
+
+        // When : offset이 int 범위를 넘는 페이지
+        Page<Long> ids = eventSearchIndex.search("spring", PageRequest.of(Integer.MAX_VALUE, 2000));
+
+        // Then
+        assertThat(ids.getContent()).isEmpty();
+        assertThat(ids.getTotalElements()).isEqualTo(2);
+        assertThat(eventSearchIndex.search("spring", PageRequest.of(100000, 2000)).getContent()).isEmpty();
+    }
+
+    @Test
+    public void rebuildWhileIndexing() throws IOException {
+        // Given : 다시 만드는 중에 같은 이벤트가 수정되어 색인된다.
+        Iterator<Event> events = Arrays.asList(event(1L, "Spring", null), event(2L, "Spring", null)).iterator();
+        Iterator<Event> concurrent = new Iterator<Event>() {
+            @Override
+            public boolean hasNext() {
+                return events.hasNext();
+            }
+
+            @Override
+            public Event next() {
+                eventSearchIndex.index(event(2L, "Spring", null));
+                return events.next();
+            }
+        };
+
+        // When
+        eventSearchIndex.rebuild(concurrent);
+
+        // Then
+        assertThat(eventSearchIndex.search("spring", PageRequest.of(0, 10)).getContent()).containsExactly(1L, 2L);
+        assertThat(eventSearchIndex.size()).isEqualTo(2);
+    }
+
+    private Event event(Long id, String name, String description) {
+        return Event.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .build();
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.study.restapi.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventSequenceInitializerTest {
+
+    @Autowired
+    EventSequenceInitializer eventSequenceInitializer;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("시퀀스보다 큰 id가 이미 있으면 그 다음 블록부터 받도록 시퀀스를 올린다")
+    void seedAboveExistingIds() {
+        // Given : 예전 시퀀스에서 받은 id
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long id = eventRepository.save(Event.builder().name("Legacy Event").build()).getId();
+        long legacyId = id + 1_000_000;
+        transactionTemplate.execute(status -> entityManager
+                .createNativeQuery("update event set id = :legacyId where id = :id")
+                .setParameter("legacyId", legacyId)
+                .setParameter("id", id)
+                .executeUpdate());
+
+        try {
+            // When
+            Long start = transactionTemplate.execute(status -> eventSequenceInitializer.seed());
+            Long again = transactionTemplate.execute(status -> eventSequenceInitializer.seed());
+
+            // Then
+            assertThat(start).isEqualTo(legacyId + Event.ID_ALLOCATION_SIZE);
+            assertThat(again).isNull();
+        } finally {
+            eventRepository.deleteById(legacyId);
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.study.restapi.events;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventValidatorTest {
+
+    private final EventValidator eventValidator = new EventValidator();
+
+    @Test
+    public void fieldRules() {
+        // Given
+        EventDto empty = new EventDto();
+        EventDto wrong = eventDto();
+        wrong.setName("");
+        wrong.setBeginEventDateTime(null);
+        wrong.setBasePrice(-1);
+        wrong.setLimitOfEnrollment(-1);
+        Errors emptyErrors = new BeanPropertyBindingResult(empty, "eventDto");
+        Errors wrongErrors = new BeanPropertyBindingResult(wrong, "eventDto");
+
+        // When
+        eventValidator.validate(empty, emptyErrors);
+        eventValidator.validate(wrong, wrongErrors);
+
+        // Then : Bean Validation 애노테이션(@NotEmpty, @NotNull, @Min)과 같은 code와 메시지
+        assertThat(fieldErrors(emptyErrors)).containsExactlyInAnyOrder(
+                "name:NotEmpty:must not be empty:null",
+                "description:NotEmpty:must not be empty:null",
+                "beginEnrollmentDateTime:NotNull:must not be null:null",
+                "closeEnrollmentDateTime:NotNull:must not be null:null",
+                "beginEventDateTime:NotNull:must not be null:null",
+                "endEventDateTime:NotNull:must not be null:null");
+        assertThat(fieldErrors(wrongErrors)).containsExactlyInAnyOrder(
+                "name:NotEmpty:must not be empty:",
+                "beginEventDateTime:NotNull:must not be null:null",
+                "basePrice:Min:must be greater than or equal to 0:-1",
+                "limitOfEnrollment:Min:must be greater than or equal to 0:-1");
+        assertThat(emptyErrors.getGlobalErrorCount()).isZero();
+        assertThat(wrongErrors.getGlobalErrorCount()).isZero();
+    }
+
+    @Test
+    public void columnLength() {
+        // Given
+        String tooLong = String.join("", Collections.nCopies(Event.TEXT_LENGTH + 1, "a"));
+        EventDto eventDto = eventDto();
+        eventDto.setName(tooLong);
+        eventDto.setLocation(tooLong);
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+
+        // When
+        eventValidator.validate(eventDto, errors);
+
+        // Then
+        assertThat(errors.getFieldErrors()).extracting(FieldError::getField).containsExactly("name", "location");
+        assertThat(errors.getFieldErrors()).extracting(FieldError::getCode).containsOnly("Size");
+        eventDto.setName(tooLong.substring(1));
+        eventDto.setLocation(null);
+        assertThat(eventValidator.isValid(eventDto)).isTrue();
+    }
+
+    @Test
+    public void crossFieldRules() {
+        // Given
+        EventDto eventDto = eventDto();
+        eventDto.setBasePrice(10000);
+        eventDto.setMaxPrice(200);
+        eventDto.setCloseEnrollmentDateTime(LocalDateTime.of(2018, 10, 10, 11, 11));
+        eventDto.setBeginEventDateTime(LocalDateTime.of(2018, 10, 9, 11, 11));
+        eventDto.setEndEventDateTime(LocalDateTime.of(2018, 10, 8, 11, 11));
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+
+        // When
+        eventValidator.validate(eventDto, errors);
+
+        // Then
+        assertThat(errors.getGlobalErrors()).extracting(ObjectError::getCode).containsExactly("wrongPrices");
+        assertThat(errors.getFieldErrors()).extracting(FieldError::getField)
+                .containsExactly("closeEnrollmentDateTime", "beginEventDateTime", "endEventDateTime");
+        assertThat(errors.getFieldErrors()).extracting(FieldError::getCode).containsOnly("wrongValue");
+        assertThat(eventValidator.isValid(eventDto)).isFalse();
+        assertThat(eventValidator.isValid(eventDto())).isTrue();
+    }
+
+    @Test
+    public void failFastAndCustomRule() {
+        // Given
+        EventRule onlineOnly = EventRule.field("location", "offline", "location must be empty.",
+                e -> e.getLocation() == null);
+        EventValidator validator = new EventValidator(Arrays.asList(onlineOnly,
+                EventRule.global("wrongPrices", "maxPrice is wrong.", e -> e.getBasePrice() <= e.getMaxPrice())), true);
+        EventDto eventDto = eventDto();
+        eventDto.setBasePrice(10000);
+        Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+
+        // When
+        validator.validate(eventDto, errors);
+
+        // Then
+        assertThat(errors.getErrorCount()).isEqualTo(1);
+        assertThat(errors.getFieldError().getCode()).isEqualTo("offline");
+    }
+
+    @Test
+    public void changedPropertiesOnly() {
+        // Given
+        EventDto eventDto = eventDto();
+        eventDto.setName("");
+        eventDto.setBasePrice(10000);
+        eventDto.setEndEventDateTime(LocalDateTime.of(2018, 10, 8, 11, 11));
+        Errors byName = new BeanPropertyBindingResult(eventDto, "eventDto");
+        Errors byPrice = new BeanPropertyBindingResult(eventDto, "eventDto");
+        Errors byDate = new BeanPropertyBindingResult(eventDto, "eventDto");
+
+        // When
+        eventValidator.validate(eventDto, byName, Collections.singleton("name"));
+        eventValidator.validate(eventDto, byPrice, Collections.singleton("maxPrice"));
+        eventValidator.validate(eventDto, byDate, Collections.singleton("beginEventDateTime"));
+
+        // Then
+        assertThat(byName.getFieldErrors()).extracting(FieldError::getField).containsExactly("name");
+        assertThat(byName.getGlobalErrorCount()).isZero();
+        assertThat(byPrice.getGlobalErrors()).extracting(ObjectError::getCode).containsExactly("wrongPrices");
+        assertThat(byPrice.getFieldErrorCount()).isZero();
+        assertThat(byDate.getFieldErrors()).extracting(FieldError::getField).containsExactly("endEventDateTime");
+    }
+
+    private Set<String> fieldErrors(Errors errors) {
+        return errors.getFieldErrors().stream()
+                .map(e -> e.getField() + ":" + e.getCode() + ":" + e.getDefaultMessage() + ":" + e.getRejectedValue())
+                .collect(Collectors.toSet());
+    }
+
+    private EventDto eventDto() {
+        return EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 11, 11, 11))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 12, 11, 11))
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .endEventDateTime(LocalDateTime.of(2018, 10, 14, 11, 11))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+    }
+
+}
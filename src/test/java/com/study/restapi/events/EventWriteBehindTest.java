@@ -0,0 +1,243 @@
+package com.study.restapi.events;
+
+import com.study.restapi.common.BaseControllerTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// 테스트에서 직접 flush 하도록 주기는 길게 둔다.
+@TestPropertySource(properties = {
+        "events.write-behind.enabled=true",
+        "events.write-behind.flush-interval=3600000",
+        "events.write-behind.journal-path=target/write-behind/events-journal.ndjson"
+})
+public class EventWriteBehindTest extends BaseControllerTest {
+
+    private static final Path JOURNAL = Paths.get("target/write-behind/events-journal.ndjson");
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EventWriteBehind eventWriteBehind;
+
+    @Autowired
+    EventResourceCache eventResourceCache;
+
+    @Autowired
+    EnrollmentAdmission enrollmentAdmission;
+
+    @Autowired
+    EventLifecycle eventLifecycle;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("연속된 수정은 바로 조회되고, DB에는 마지막 수정만 UPDATE 한 번으로 쓴다")
+    void coalesceUpdates() throws Exception {
+        // Given
+        Event event = generateEvent();
+
+        // When
+        String eTag = null;
+        for (int i = 1; i <= 3; i++) {
+            String newETag = modify(event, "Updated " + i);
+            assertThat(newETag).isNotEqualTo(eTag);
+            eTag = newETag;
+        }
+
+        // Then
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(jsonPath("name").value("Updated 3"));
+        mockMvc.perform(get("/api/events/{id}", event.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertThat(eventRepository.findVersionById(event.getId())).contains(event.getVersion());
+        assertThat(Files.readAllLines(JOURNAL)).isNotEmpty();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        eventWriteBehind.flush();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(eventWriteBehind.size()).isZero();
+        assertThat(Files.readAllLines(JOURNAL)).isEmpty();
+
+        Event saved = eventRepository.findById(event.getId()).get();
+        assertThat(saved.getName()).isEqualTo("Updated 3");
+        assertThat("\"" + saved.getId() + "-" + saved.getVersion() + "\"").isEqualTo(eTag);
+    }
+
+    @Test
+    @DisplayName("버퍼에 있는 수정보다 오래된 ETag로 수정하면 412")
+    void modifyWithStaleETag() throws Exception {
+        // Given
+        Event event = generateEvent();
+        String eTag = "\"" + event.getId() + "-" + event.getVersion() + "\"";
+        modify(event, "Updated");
+
+        // When & Then
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto(event, "Stale"))))
+                .andExpect(status().isPreconditionFailed());
+        eventWriteBehind.flush();
+        assertThat(eventRepository.findById(event.getId()).get().getName()).isEqualTo("Updated");
+    }
+
+    @Test
+    @DisplayName("수정을 쓰기 전에 참가 신청으로 버전이 먼저 올라가도 수정이 쓰이고 ETag가 바뀐다")
+    void enrollBeforeFlush() throws Exception {
+        // Given
+        Event event = generateEvent(EventStatus.BEGAN_ENROLLMENT);
+        String eTag = modify(event, "Updated");
+
+        // When : 참가 신청도 버전을 하나 올리므로 DB 버전이 버퍼의 버전과 같아진다.
+        mockMvc.perform(post("/api/events/{id}/enrollments", event.getId()))
+                .andExpect(status().isNoContent());
+        assertThat("\"" + event.getId() + "-" + eventRepository.findVersionById(event.getId()).get() + "\"")
+                .isEqualTo(eTag);
+        eventWriteBehind.flush();
+
+        // Then
+        Event saved = eventRepository.findById(event.getId()).get();
+        assertThat(saved.getName()).isEqualTo("Updated");
+        assertThat(saved.getEnrolled()).isEqualTo(1);
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + saved.getId() + "-" + saved.getVersion() + "\""))
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("name").value("Updated"))
+                .andExpect(jsonPath("enrolled").value(1));
+    }
+
+    @Test
+    @DisplayName("쓸 수 없는 수정이 있어도 다른 이벤트의 수정은 쓴다")
+    void isolateFailedUpdate() throws Exception {
+        // Given : 검증을 거치지 않고 컬럼보다 긴 이름을 넣는다.
+        Event broken = generateEvent();
+        String tooLong = String.join("", Collections.nCopies(Event.TEXT_LENGTH + 1, "a"));
+        assertThat(eventWriteBehind.write(broken, eventDto(broken, tooLong))).isNotNull();
+        Event event = generateEvent();
+        modify(event, "Updated");
+
+        // When
+        eventWriteBehind.flush();
+
+        // Then
+        assertThat(eventRepository.findById(event.getId()).get().getName()).isEqualTo("Updated");
+        assertThat(eventWriteBehind.pendingVersion(broken.getId())).isNotNull();
+        assertThat(eventWriteBehind.size()).isEqualTo(1);
+
+        // 지워진 이벤트의 수정은 버린다.
+        eventRepository.deleteById(broken.getId());
+        eventWriteBehind.flush();
+        assertThat(eventWriteBehind.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("쓰기 전에 죽어도 저널에서 수정을 다시 읽어서 쓴다")
+    void replayJournal() throws Exception {
+        // Given
+        Event event = generateEvent();
+        String eTag = modify(event, "Journaled");
+        Path copy = JOURNAL.resolveSibling("events-journal-copy.ndjson");
+        Files.copy(JOURNAL, copy, StandardCopyOption.REPLACE_EXISTING);
+
+        // When
+        EventWriteBehind replayed = new EventWriteBehind(eventRepository, eventMapper, eventResourceCache,
+                enrollmentAdmission, eventLifecycle, objectMapper, transactionManager, false, copy.toString());
+
+        // Then
+        assertThat("\"" + event.getId() + "-" + replayed.pendingVersion(event.getId()) + "\"").isEqualTo(eTag);
+        replayed.destroy();
+        assertThat(eventRepository.findById(event.getId()).get().getName()).isEqualTo("Journaled");
+
+        // 이미 쓴 수정이므로 버전이 다시 올라가지 않는다.
+        eventWriteBehind.flush();
+        Event saved = eventRepository.findById(event.getId()).get();
+        assertThat("\"" + saved.getId() + "-" + saved.getVersion() + "\"").isEqualTo(eTag);
+    }
+
+    @Test
+    @DisplayName("flush한 뒤에는 버전이 같아도 캐시된 이벤트를 지워서 예전 내용을 응답하지 않는다")
+    void evictAfterFlush() throws Exception {
+        // Given
+        Event event = generateEvent();
+        modify(event, "Flushed");
+        // flush 전의 DB 행을 읽은 캐시 로드가 엔트리가 빠진 뒤에 넣은 것과 같다.
+        eventResourceCache.put(event.getId(), new EventResource(eventRepository.findById(event.getId()).get()));
+
+        // When
+        eventWriteBehind.flush();
+
+        // Then
+        assertThat(eventResourceCache.getIfPresent(event.getId())).isNull();
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Flushed"));
+    }
+
+    private String modify(Event event, String name) throws Exception {
+        return mockMvc.perform(put("/api/events/{id}", event.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(eventDto(event, name))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value(name))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private EventDto eventDto(Event event, String name) {
+        EventDto eventDto = eventMapper.toEventDto(event);
+        eventDto.setName(name);
+        return eventDto;
+    }
+
+    private Event generateEvent() {
+        return generateEvent(EventStatus.DRAFT);
+    }
+
+    private Event generateEvent(EventStatus eventStatus) {
+        return eventRepository.save(Event.builder()
+                .name("Write Behind")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 10, 11, 11, 11))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 10, 12, 11, 11))
+                .beginEventDateTime(LocalDateTime.of(2018, 10, 13, 11, 11))
+                .endEventDateTime(LocalDateTime.of(2018, 10, 14, 11, 11))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .eventStatus(eventStatus)
+                .build());
+    }
+
+}